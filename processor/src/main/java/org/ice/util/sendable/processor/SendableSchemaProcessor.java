@@ -0,0 +1,369 @@
+package org.ice.util.sendable.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * <p>
+ * Annotation processor that generates a {@code GeneratedSchema} for every concrete {@code AnnotatedSendable} class being compiled.
+ * The generated schema adds every {@code Getter}, {@code Setter}, and {@code Variable} of the class using plain method calls and field accesses,
+ * so {@code AnnotatedSendable.initSendable} does not need to scan the class with reflection at runtime.
+ * </p>
+ * Classes that cannot be fully described at compile time (for example, classes with {@code private} annotated fields) are skipped, and use reflection at runtime instead.
+ * To use the processor, add it to the {@code annotationProcessor} configuration of the robot project:
+ * <pre>
+ *{@code
+ * dependencies {
+ *     annotationProcessor 'org.ice:commons-processor:<version>'
+ * }
+ *}
+ *</pre>
+ */
+@SupportedAnnotationTypes("*")
+public class SendableSchemaProcessor extends AbstractProcessor {
+
+    private static final String SENDABLE = "org.ice.util.sendable.AnnotatedSendable";
+    private static final String GETTER = SENDABLE + ".Getter";
+    private static final String SETTER = SENDABLE + ".Setter";
+    private static final String VARIABLE = SENDABLE + ".Variable";
+    private static final String NESTED = SENDABLE + ".Nested";
+    private static final String SUFFIX = "_SendableSchema";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement sendable = processingEnv.getElementUtils().getTypeElement(SENDABLE);
+        //nothing to do if the library is not on the classpath
+        if (sendable == null) return false;
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            process(type, sendable);
+        }
+        //never claim annotations, other processors may still want them
+        return false;
+    }
+
+    private void process(TypeElement type, TypeElement sendable) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            process(nested, sendable);
+        }
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) return;
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !isAccessible(type)) return;
+        Types types = processingEnv.getTypeUtils();
+        if (!types.isAssignable(types.erasure(type.asType()), types.erasure(sendable.asType()))) return;
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (!generated.add(binaryName)) return;
+        Map<String, PropertyModel> properties = describe(type, sendable);
+        if (properties == null) return;
+        try {
+            write(type, binaryName, properties);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write sendable schema: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Collects the properties of the given type, following the same rules as the reflection based lookup in {@code AnnotatedSendable}.
+     * @return the properties of the type by key, or {@code null} if no schema should be generated for the type
+     */
+    private Map<String, PropertyModel> describe(TypeElement type, TypeElement sendable) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        DeclaredType declared = (DeclaredType) type.asType();
+        Map<String, PropertyModel> properties = new LinkedHashMap<>();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(type)).stream()
+                .filter((m)->m.getModifiers().contains(Modifier.PUBLIC))
+                .toList();
+        boolean valid = true;
+        //-------------------METHOD MAPPING-------------------
+        for (ExecutableElement getter : methods) {
+            AnnotationMirror annot = annotation(getter, GETTER);
+            if (annot == null || !getter.getParameters().isEmpty()) continue;
+            String key = key(annot);
+            TypeMirror returnType = ((ExecutableType) types.asMemberOf(declared, getter)).getReturnType();
+            PropertyType propertyType = PropertyType.of(returnType, types);
+            if (properties.containsKey(key)) {
+                error(getter, "Cannot have multiple getters of the same value");
+                valid = false;
+            } else if (propertyType == null) {
+                error(getter, invalidType(returnType));
+                valid = false;
+            } else {
+                PropertyModel property = new PropertyModel(returnType, propertyType, "o." + getter.getSimpleName() + "()");
+                property.options = options(annot);
+                properties.put(key, property);
+            }
+        }
+        for (ExecutableElement setter : methods) {
+            AnnotationMirror annot = annotation(setter, SETTER);
+            if (annot == null || setter.getParameters().size() != 1) continue;
+            String key = key(annot);
+            TypeMirror paramType = ((ExecutableType) types.asMemberOf(declared, setter)).getParameterTypes().get(0);
+            PropertyModel property = properties.get(key);
+            if (property == null) {
+                error(setter, "All keys must have corresponding getters");
+                valid = false;
+            } else if (!types.isSameType(types.erasure(property.type), types.erasure(paramType))) {
+                error(setter, "Keys cannot have getters and setters for different value types");
+                valid = false;
+            } else {
+                property.setter = "o." + setter.getSimpleName() + "(" + property.propertyType.cast("v") + ")";
+            }
+        }
+        //-------------------FIELD MAPPING-------------------
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror annot = annotation(field, VARIABLE);
+            if (annot == null) continue;
+            if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Private field " + field.getSimpleName() + " cannot be accessed by a generated schema, " + type.getSimpleName() + " will use reflection instead", field);
+                return null;
+            }
+            TypeMirror fieldType = types.asMemberOf(declared, field);
+            PropertyType propertyType = PropertyType.of(fieldType, types);
+            if (propertyType == null) {
+                error(field, invalidType(fieldType));
+                valid = false;
+                continue;
+            }
+            PropertyModel property = new PropertyModel(fieldType, propertyType, "o." + field.getSimpleName());
+            property.options = options(annot);
+            if (Boolean.TRUE.equals(value(annot, "mutable")) && !field.getModifiers().contains(Modifier.FINAL)) {
+                property.setter = "o." + field.getSimpleName() + " = " + propertyType.cast("v");
+            }
+            properties.put(key(annot), property);
+        }
+        //-------------------NESTED MAPPING-------------------
+        TypeMirror sendableType = types.erasure(sendable.asType());
+        for (ExecutableElement method : methods) {
+            AnnotationMirror annot = annotation(method, NESTED);
+            if (annot == null || !method.getParameters().isEmpty()) continue;
+            TypeMirror returnType = ((ExecutableType) types.asMemberOf(declared, method)).getReturnType();
+            valid &= addNested(properties, key(annot), returnType, "o." + method.getSimpleName() + "()", method, sendableType);
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror annot = annotation(field, NESTED);
+            if (annot == null) continue;
+            if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Private field " + field.getSimpleName() + " cannot be accessed by a generated schema, " + type.getSimpleName() + " will use reflection instead", field);
+                return null;
+            }
+            valid &= addNested(properties, key(annot), types.asMemberOf(declared, field), "o." + field.getSimpleName(), field, sendableType);
+        }
+        return valid ? properties : null;
+    }
+
+    /**
+     * Adds a nested sendable with the given key, if the key is not used yet and the type is an {@code AnnotatedSendable}.
+     * @return whether the nested sendable is valid
+     */
+    private boolean addNested(Map<String, PropertyModel> properties, String key, TypeMirror type, String getter, Element element, TypeMirror sendableType) {
+        Types types = processingEnv.getTypeUtils();
+        if (properties.containsKey(key)) {
+            error(element, "Cannot have multiple getters of the same value");
+            return false;
+        }
+        if (!types.isAssignable(types.erasure(type), sendableType)) {
+            error(element, element.getKind() == ElementKind.FIELD ? "Nested fields must be an AnnotatedSendable" : "Nested methods must return an AnnotatedSendable");
+            return false;
+        }
+        properties.put(key, new PropertyModel(type, PropertyType.NESTED, getter));
+        return true;
+    }
+
+    private void write(TypeElement type, String binaryName, Map<String, PropertyModel> properties) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String typeName = typeName(type);
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(binaryName + SUFFIX, type).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+            out.println("public final class " + simpleName + " implements org.ice.util.sendable.GeneratedSchema<" + typeName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void describe(org.ice.util.sendable.SchemaBuilder<" + typeName + "> schema) {");
+            for (Map.Entry<String, PropertyModel> entry : properties.entrySet()) {
+                PropertyModel property = entry.getValue();
+                PropertyType propertyType = property.propertyType;
+                if (propertyType == PropertyType.NESTED) {
+                    out.println("        schema.addNested(" + elements.getConstantExpression(entry.getKey()) + ", o -> " + property.getter + ");");
+                    continue;
+                }
+                out.println("        schema." + propertyType.method + "(" + elements.getConstantExpression(entry.getKey()) + ", "
+                        + (propertyType.literal == null ? "" : propertyType.literal + ", ")
+                        + (property.options == null ? "" : property.options + ", ")
+                        + "o -> " + property.getter + ", "
+                        + (property.setter == null ? "null" : "(o, v) -> " + property.setter) + ");");
+            }
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) return false;
+        }
+        return true;
+    }
+
+    private String typeName(TypeElement type) {
+        String name = type.getQualifiedName().toString();
+        int params = type.getTypeParameters().size();
+        return params == 0 ? name : name + "<" + String.join(",", Collections.nCopies(params, "?")) + ">";
+    }
+
+    private AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(name)) return mirror;
+        }
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    private String key(AnnotationMirror mirror) {
+        return (String) value(mirror, "key");
+    }
+
+    /**
+     * Creates the expression for the {@code PropertyOptions} set by the given {@code Getter} or {@code Variable} annotation.
+     * @return the expression, or {@code null} if the annotation uses the default options
+     */
+    private String options(AnnotationMirror mirror) {
+        double period = ((Number) value(mirror, "period")).doubleValue();
+        boolean onChange = (Boolean) value(mirror, "onChange");
+        double epsilon = ((Number) value(mirror, "epsilon")).doubleValue();
+        //enum values are given as the element of the constant
+        String priority = ((VariableElement) value(mirror, "priority")).getSimpleName().toString();
+        if (period == 0 && !onChange && epsilon == 0 && priority.equals("NORMAL")) return null;
+        Elements elements = processingEnv.getElementUtils();
+        return "new org.ice.util.sendable.PropertyOptions(" + elements.getConstantExpression(period) + ", " + onChange + ", " + elements.getConstantExpression(epsilon)
+                + ", org.ice.util.sendable.TelemetryPriority." + priority + ")";
+    }
+
+    private String invalidType(TypeMirror type) {
+        return "A field or method annotated for sending has an invalid type (" + type + ")," +
+                " valid types are: int,long,float,double,boolean,String,int[],long[],float[],double[],boolean[],String[], and AutoCloseable";
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * A property found on the type being processed.
+     */
+    private static class PropertyModel {
+
+        private final TypeMirror type;
+
+        private final PropertyType propertyType;
+
+        private final String getter;
+
+        private String setter;
+
+        private String options;
+
+        PropertyModel(TypeMirror type, PropertyType propertyType, String getter) {
+            this.type = type;
+            this.propertyType = propertyType;
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * The types supported by {@code AnnotatedSendable}, the {@code SchemaBuilder} method used to add each of them,
+     * and how to convert the values passed to setters. {@code int} properties are added as {@code long} properties.
+     */
+    private enum PropertyType {
+        INT("addLong", null, "(int) "),
+        LONG("addLong", null, ""),
+        FLOAT("addFloat", null, ""),
+        DOUBLE("addDouble", null, ""),
+        BOOLEAN("addBoolean", null, ""),
+        STRING("add", "java.lang.String.class", "(java.lang.String) "),
+        INT_ARRAY("add", "int[].class", "(int[]) "),
+        LONG_ARRAY("add", "long[].class", "(long[]) "),
+        FLOAT_ARRAY("add", "float[].class", "(float[]) "),
+        DOUBLE_ARRAY("add", "double[].class", "(double[]) "),
+        BOOLEAN_ARRAY("add", "boolean[].class", "(boolean[]) "),
+        STRING_ARRAY("add", "java.lang.String[].class", "(java.lang.String[]) "),
+        CLOSEABLE("add", "java.lang.AutoCloseable.class", "(java.lang.AutoCloseable) "),
+        //not a property type, used for nested sendables
+        NESTED("addNested", null, "");
+
+        private final String method, literal, narrowing;
+
+        PropertyType(String method, String literal, String narrowing) {
+            this.method = method;
+            this.literal = literal;
+            this.narrowing = narrowing;
+        }
+
+        String cast(String expression) {
+            return narrowing + expression;
+        }
+
+        static PropertyType of(TypeMirror type, Types types) {
+            type = types.erasure(type);
+            switch (type.getKind()) {
+                case INT: return INT;
+                case LONG: return LONG;
+                case FLOAT: return FLOAT;
+                case DOUBLE: return DOUBLE;
+                case BOOLEAN: return BOOLEAN;
+                case ARRAY:
+                    TypeMirror component = ((ArrayType) type).getComponentType();
+                    switch (component.getKind()) {
+                        case INT: return INT_ARRAY;
+                        case LONG: return LONG_ARRAY;
+                        case FLOAT: return FLOAT_ARRAY;
+                        case DOUBLE: return DOUBLE_ARRAY;
+                        case BOOLEAN: return BOOLEAN_ARRAY;
+                        case DECLARED: return isNamed(component, "java.lang.String") ? STRING_ARRAY : null;
+                        default: return null;
+                    }
+                case DECLARED:
+                    if (isNamed(type, "java.lang.String")) return STRING;
+                    //mirrors the runtime check, which only accepts AutoCloseable itself and its supertypes
+                    if (isNamed(type, "java.lang.AutoCloseable") || isNamed(type, "java.lang.Object")) return CLOSEABLE;
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private static boolean isNamed(TypeMirror type, String name) {
+            return type instanceof DeclaredType declared && ((TypeElement) declared.asElement()).getQualifiedName().contentEquals(name);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package org.ice.util.motor;
 import com.ctre.phoenix6.controls.*;
 import com.revrobotics.spark.SparkBase;
 
+import java.util.function.DoubleConsumer;
 import java.util.function.DoubleFunction;
+import java.util.function.ObjDoubleConsumer;
 
 /**
  * Enum of the different possible ways of controlling {@link GenericMotorController} instances.
@@ -13,35 +15,35 @@ public enum ControlType {
      * Moves the motor using PID to the given position in rotations
      * @see #MM_POSITION
      */
-    POSITION(SparkBase.ControlType.kPosition,PositionDutyCycle::new),
+    POSITION(SparkBase.ControlType.kPosition,new TalonControl<PositionDutyCycle>(PositionDutyCycle::new,PositionDutyCycle::withPosition)),
     /**
      * Sets the motor's power as a percent represented by a value from -1 to 1
      */
-    DUTY_CYCLE(SparkBase.ControlType.kDutyCycle,DutyCycleOut::new),
+    DUTY_CYCLE(SparkBase.ControlType.kDutyCycle,new TalonControl<DutyCycleOut>(DutyCycleOut::new,DutyCycleOut::withOutput)),
     /**
      * Sets the motor's velocity using PID to the given velocity in rpm
      * @see #MM_VELOCITY
      */
-    VELOCITY(SparkBase.ControlType.kVelocity,VelocityDutyCycle::new),
+    VELOCITY(SparkBase.ControlType.kVelocity,new TalonControl<VelocityDutyCycle>(VelocityDutyCycle::new,VelocityDutyCycle::withVelocity)),
     /**
      * Sets the motor's velocity using Motion Magic/MAX Motion to the given velocity in rpm
      * @see #VELOCITY
      */
-    MM_VELOCITY(SparkBase.ControlType.kMAXMotionVelocityControl, MotionMagicVelocityDutyCycle::new),
+    MM_VELOCITY(SparkBase.ControlType.kMAXMotionVelocityControl, new TalonControl<MotionMagicVelocityDutyCycle>(MotionMagicVelocityDutyCycle::new,MotionMagicVelocityDutyCycle::withVelocity)),
     /**
      * Moves the motor using Motion Magic/MAX Motion to the given position in rotations
      * @see #POSITION
      */
-    MM_POSITION(SparkBase.ControlType.kMAXMotionPositionControl, MotionMagicDutyCycle::new),
+    MM_POSITION(SparkBase.ControlType.kMAXMotionPositionControl, new TalonControl<MotionMagicDutyCycle>(MotionMagicDutyCycle::new,MotionMagicDutyCycle::withPosition)),
     /**
      * Sets the voltage that the motor operates at in Volts
      */
-    VOLTAGE(SparkBase.ControlType.kVoltage,VoltageOut::new);
+    VOLTAGE(SparkBase.ControlType.kVoltage,new TalonControl<VoltageOut>(VoltageOut::new,VoltageOut::withOutput));
 
     private SparkBase.ControlType sparkControl;
-    private DoubleFunction<ControlRequest> talonControl;
+    private TalonControl<?> talonControl;
 
-    ControlType(SparkBase.ControlType sparkControl, DoubleFunction<ControlRequest> talonControl) {
+    ControlType(SparkBase.ControlType sparkControl, TalonControl<?> talonControl) {
         this.sparkControl = sparkControl;
         this.talonControl = talonControl;
     }
@@ -49,7 +51,55 @@ public enum ControlType {
         return sparkControl;
     }
 
-    ControlRequest asTalonControl(double input) {
-        return talonControl.apply(input);
+    /**
+     * Creates a new Phoenix control request for this control type, which can be reused for every input.
+     * @return the new request
+     */
+    TalonRequest newTalonRequest() {
+        return talonControl.newRequest();
+    }
+
+    /**
+     * Creates the Phoenix control requests of a single control type.
+     * @param <R> the type of the control request
+     */
+    private static final class TalonControl<R extends ControlRequest> {
+
+        private final DoubleFunction<R> factory;
+        private final ObjDoubleConsumer<R> updater;
+
+        private TalonControl(DoubleFunction<R> factory, ObjDoubleConsumer<R> updater) {
+            this.factory = factory;
+            this.updater = updater;
+        }
+
+        private TalonRequest newRequest() {
+            R request = factory.apply(0);
+            return new TalonRequest(request, (input) -> updater.accept(request, input));
+        }
+    }
+
+    /**
+     * A reusable Phoenix control request. Changing the input updates the request in place, so sending a new input to a motor does not allocate a new request.
+     */
+    static final class TalonRequest {
+
+        private final ControlRequest request;
+        private final DoubleConsumer updater;
+
+        private TalonRequest(ControlRequest request, DoubleConsumer updater) {
+            this.request = request;
+            this.updater = updater;
+        }
+
+        /**
+         * Sets the input of the request.
+         * @param input the new input
+         * @return the updated request
+         */
+        ControlRequest withInput(double input) {
+            updater.accept(input);
+            return request;
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.hardware.traits.CommonTalon;
 import com.revrobotics.spark.SparkBase;
 import com.revrobotics.spark.config.SparkBaseConfig;
+import edu.wpi.first.wpilibj.Timer;
 import org.ice.util.sendable.AnnotatedSendable;
 import org.ice.util.swerve.PIDValues;
 
@@ -21,12 +22,20 @@ public interface GenericMotorController<T> extends AnnotatedSendable {
     T getMotor();
 
     /**
-     * Sets the motor to use the given {@link ControlType} with the given input without applying the controller's {@link #getPositionConversionFactor() conversion factor}
+     * Sets the motor to use the given {@link ControlType} with the given input without applying the controller's {@link #getPositionConversionFactor() conversion factor}.
+     * Setpoints that repeat the last one are not sent again, unless the {@link #getSetpointCache() setpoint cache's} keep alive time has passed.
      * @param input the input.
      * @param type the control mode for the motor
      */
     void controlRaw(double input, ControlType type);
 
+    /**
+     * Gets the cache used to skip sending repeated setpoints to the motor, which can be used to configure how setpoints are skipped.
+     * @return the motor's setpoint cache
+     * @see #controlRaw(double, ControlType)
+     */
+    SetpointCache getSetpointCache();
+
     /**
      * Sets the motor to use the given {@link ControlType} with the given input, applying the controller's {@link #getPositionConversionFactor() conversion factor} for affected control types
      * @param input the input for the given control type
@@ -199,6 +208,63 @@ public interface GenericMotorController<T> extends AnnotatedSendable {
         return getRawVelocity()/getVelocityConversionFactor();
     }
 
+    /**
+     * The latest reading of the motor's encoder, along with the time it was measured, without the {@link #getPositionConversionFactor() conversion factor} applied.
+     * The velocity of the sample is in raw position units per second, even if {@link #getRawVelocity()} uses different units.
+     * By default, the sample is the {@link #getRawPosition() raw position} measured at the current time with a velocity of 0, since the units of {@link #getRawVelocity()} are not known here,
+     * which makes {@link #getCompensatedPosition()} the same as {@link #getPosition()}. Motors that know when their readings were measured should override this.
+     * @see #getSample()
+     */
+    default MotorSample getRawSample() {
+        return new MotorSample(getRawPosition(), 0, Timer.getFPGATimestamp());
+    }
+
+    /**
+     * The latest reading of the motor's encoder, along with the time it was measured, with the {@link #getPositionConversionFactor() position conversion factor} applied to both the position and the velocity.
+     * @see #getRawSample()
+     * @see #getCompensatedPosition()
+     */
+    default MotorSample getSample() {
+        MotorSample raw = getRawSample();
+        double factor = getPositionConversionFactor();
+        return new MotorSample(raw.position()/factor, raw.velocity()/factor, raw.timestamp());
+    }
+
+    /**
+     * The position of the motor with the {@link #getPositionConversionFactor() conversion factor} applied, estimated at the current time
+     * by extrapolating the latest {@link #getSample() sample} with its velocity. Unlike {@link #getPosition()}, this accounts for how old the latest reading is.
+     * @see #getSample()
+     */
+    default double getCompensatedPosition() {
+        return getSample().positionAt(Timer.getFPGATimestamp());
+    }
+
+    /**
+     * Sets how often the motor reports the given signal. Reporting signals less often, or not at all, reduces the load on the CAN bus.
+     * Does nothing by default, for motors whose signal periods can't be configured.
+     * @param signal the signal
+     * @param seconds the update period in seconds, or 0 to disable the signal
+     * @see #applySignalPreset(SignalPreset)
+     */
+    default void setSignalPeriod(MotorSignal signal, double seconds) {}
+
+    /**
+     * Stops the motor from reporting signals whose update period was never set, where supported by the motor. Does nothing by default.
+     * @see #setSignalPeriod(MotorSignal, double)
+     */
+    default void disableUnusedSignals() {}
+
+    /**
+     * Sets the update period of every {@link MotorSignal} to the period given by the preset, then {@link #disableUnusedSignals() disables unused signals}.
+     * @param preset the preset to apply
+     */
+    default void applySignalPreset(SignalPreset preset) {
+        for (MotorSignal signal : MotorSignal.values()) {
+            setSignalPeriod(signal, preset.getPeriod(signal));
+        }
+        disableUnusedSignals();
+    }
+
     /**
      * Sets the encoder position to the given value. This does NOT move the motor, it only sets the encoder value.
      * @param value the new encoder value
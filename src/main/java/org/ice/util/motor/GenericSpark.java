@@ -1,10 +1,24 @@
 package org.ice.util.motor;
 
+import com.revrobotics.REVLibError;
+import com.revrobotics.RelativeEncoder;
 import com.revrobotics.spark.SparkBase;
 import com.revrobotics.spark.SparkClosedLoopController;
+import com.revrobotics.spark.SparkFlex;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.EncoderConfigAccessor;
+import com.revrobotics.spark.config.SignalsConfig;
 import com.revrobotics.spark.config.SparkBaseConfig;
+import com.revrobotics.spark.config.SparkFlexConfig;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import edu.wpi.first.wpilibj.Timer;
 import org.ice.util.swerve.PIDValues;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
 /**
  * Spark MAX and Spark FLEX implementation of {@link GenericMotorController}
  * @see GenericTalon
@@ -19,6 +33,32 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
 
     private SparkBaseConfig config;
 
+    private final SetpointCache setpoints = new SetpointCache();
+
+    //sends queued config changes to every Spark, in the order they were made
+    private static final ExecutorService CONFIG_EXECUTOR = Executors.newSingleThreadExecutor((runnable) -> {
+        Thread thread = new Thread(runnable, "GenericSpark Config");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //config changes that have not been sent yet, and the future completed once they are
+    private SparkBaseConfig pendingDelta;
+    private CompletableFuture<REVLibError> pendingResult;
+
+    /**
+     * Assumed age of the encoder readings in seconds: half of the default 20 ms period of the Spark's encoder status frame.
+     */
+    public static final double DEFAULT_MEASUREMENT_LATENCY = 0.01;
+
+    private double measurementLatency = DEFAULT_MEASUREMENT_LATENCY;
+
+    //longest status frame period that can be configured
+    private static final int MAX_PERIOD_MS = 32767;
+
+    //converts the encoder's velocity units to its position units per second, assuming the default conversion factors until they are read from the motor
+    private volatile double velocityToPositionRate = 1 / 60.0;
+
     /**
      * Constructs a new GenericSpark instance using the given motor and config.
      * The motor config is necessary for {@link #follow(GenericMotorController, boolean) following} other motors, and is immediately applied to the motor.
@@ -27,10 +67,25 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
      * @see #from(SparkBase, SparkBaseConfig)
      */
     public GenericSpark(SparkBase motor, SparkBaseConfig config) {
-        motor.configure(config, SparkBase.ResetMode.kResetSafeParameters, SparkBase.PersistMode.kNoPersistParameters);
+        this(motor, config, false);
+    }
+
+    /**
+     * Constructs a new GenericSpark instance using the given motor and config, optionally persisting the config to the motor's flash.
+     * The config is only persisted if it changed since it was last persisted, as tracked by {@link SparkConfigCache}.
+     * @param motor the motor that this object uses.
+     * @param config the config of that motor.
+     * @param persist whether the config should be persisted to the motor's flash
+     * @see SparkConfigCache
+     */
+    public GenericSpark(SparkBase motor, SparkBaseConfig config, boolean persist) {
+        if (persist) SparkConfigCache.configure(motor, config, SparkBase.ResetMode.kResetSafeParameters);
+        else motor.configure(config, SparkBase.ResetMode.kResetSafeParameters, SparkBase.PersistMode.kNoPersistParameters);
         this.motor = motor;
         controller = motor.getClosedLoopController();
         this.config = config;
+        //reading parameters blocks, so the conversion factors are read on the config thread instead of slowing down startup
+        CONFIG_EXECUTOR.execute(this::readVelocityToPositionRate);
     }
 
     /**{@inheritDoc}*/
@@ -42,9 +97,16 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
     /**{@inheritDoc}*/
     @Override
     public void controlRaw(double input, ControlType type) {
+        if (!setpoints.shouldSend(input, type, Timer.getFPGATimestamp())) return;
         controller.setReference(input,type.asSparkControl());
     }
 
+    /**{@inheritDoc}*/
+    @Override
+    public SetpointCache getSetpointCache() {
+        return setpoints;
+    }
+
     /**{@inheritDoc}*/
     @Override
     @Getter(key="Power")
@@ -54,7 +116,7 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
 
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Temperature")
+    @Getter(key="Temperature",period=1)
     public double getTemp() {
         return motor.getMotorTemperature();
     }
@@ -71,9 +133,41 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
         return motor.getEncoder().getVelocity();
     }
 
+    /**
+     * {@inheritDoc}
+     * Sparks do not report when a reading was measured, so the timestamp of the sample is the current time minus the {@link #getMeasurementLatency() measurement latency}.
+     */
+    @Override
+    public MotorSample getRawSample() {
+        RelativeEncoder encoder = motor.getEncoder();
+        return new MotorSample(
+                encoder.getPosition(),
+                encoder.getVelocity() * velocityToPositionRate,
+                Timer.getFPGATimestamp() - measurementLatency
+        );
+    }
+
+    /**
+     * Sets how old the encoder readings are assumed to be when compensating for latency. This should be about half of the period of the Spark's encoder status frame.
+     * @param seconds the assumed age of the encoder readings, in seconds
+     * @see #DEFAULT_MEASUREMENT_LATENCY
+     * @see #getCompensatedPosition()
+     */
+    public void setMeasurementLatency(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Measurement latency must be non-negative (" + seconds + ")");
+        measurementLatency = seconds;
+    }
+
+    /**
+     * @return how old the encoder readings are assumed to be when compensating for latency, in seconds
+     */
+    public double getMeasurementLatency() {
+        return measurementLatency;
+    }
+
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Conversion Factor")
+    @Getter(key="Conversion Factor",period=1)
     public double getPositionConversionFactor() {
         return posConversion;
     }
@@ -98,28 +192,142 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
 
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Motor ID")
+    @Getter(key="Motor ID",period=5)
     public int getMotorID() {
         return motor.getDeviceId();
     }
 
-    /**{@inheritDoc}*/
+    /**
+     * {@inheritDoc}
+     * Only the PID values are sent to the motor, without resetting any other parameters, and without waiting for the motor to respond.
+     */
     @Override
     public void setPID(PIDValues pid) {
-        config.closedLoop.pidf(
+        updateConfig((sparkConfig) -> sparkConfig.closedLoop.pidf(
                 pid.getP(),
                 pid.getI(),
                 pid.getD(),
                 pid.getFF()
-        );
-        motor.configure(config, SparkBase.ResetMode.kResetSafeParameters, SparkBase.PersistMode.kNoPersistParameters);
+        ));
     }
 
-    /**{@inheritDoc}*/
+    /**
+     * {@inheritDoc}
+     * Sparks cannot disable a signal, so a period of 0 sets the longest possible period instead. Setting the position period also sets the {@link #setMeasurementLatency(double) measurement latency} to half of it.
+     */
+    @Override
+    public void setSignalPeriod(MotorSignal signal, double seconds) {
+        int periodMs = toPeriodMs(seconds);
+        updateConfig((sparkConfig) -> setSignalPeriod(sparkConfig.signals, signal, periodMs));
+        signalPeriodChanged(signal, seconds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * All the periods are sent to the motor together.
+     */
+    @Override
+    public void applySignalPreset(SignalPreset preset) {
+        updateConfig((sparkConfig) -> {
+            for (MotorSignal signal : MotorSignal.values()) {
+                setSignalPeriod(sparkConfig.signals, signal, toPeriodMs(preset.getPeriod(signal)));
+            }
+        });
+        for (MotorSignal signal : MotorSignal.values()) {
+            signalPeriodChanged(signal, preset.getPeriod(signal));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * This does nothing for Sparks, since REVLib already stops the Spark from sending status frames whose signals are never read.
+     */
+    @Override
+    public void disableUnusedSignals() {}
+
+    private static void setSignalPeriod(SignalsConfig signals, MotorSignal signal, int periodMs) {
+        switch (signal) {
+            case POSITION -> signals.primaryEncoderPositionPeriodMs(periodMs);
+            case VELOCITY -> signals.primaryEncoderVelocityPeriodMs(periodMs);
+            case CURRENT -> signals.outputCurrentPeriodMs(periodMs);
+            case TEMPERATURE -> signals.motorTemperaturePeriodMs(periodMs);
+            case FAULTS -> signals.faultsPeriodMs(periodMs);
+        }
+    }
+
+    private static int toPeriodMs(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Signal period must be non-negative (" + seconds + ")");
+        if (seconds == 0) return MAX_PERIOD_MS;
+        return (int) Math.max(1, Math.min(MAX_PERIOD_MS, Math.round(seconds * 1000)));
+    }
+
+    private void signalPeriodChanged(MotorSignal signal, double seconds) {
+        if (signal == MotorSignal.POSITION && seconds > 0) measurementLatency = seconds / 2;
+    }
+
+    /**
+     * Applies the given change to this motor's config, and queues the changed parameters to be sent to the motor by a background thread, without resetting any other parameters.
+     * Changes made before the queued parameters are sent are sent together with them. This never waits for the motor, so it is safe to call from the main loop.
+     * <pre>
+     *{@code
+     * motor.updateConfig((config) -> config.idleMode(SparkBaseConfig.IdleMode.kCoast))
+     *         .thenAccept((error) -> System.out.println("Idle mode set: " + error));
+     *}
+     *</pre>
+     * @param change the change to apply
+     * @return a future completed with the result of sending the change to the motor
+     */
+    public CompletableFuture<REVLibError> updateConfig(Consumer<SparkBaseConfig> change) {
+        synchronized (this) {
+            change.accept(config);
+            if (pendingDelta == null) {
+                pendingDelta = config instanceof SparkFlexConfig ? new SparkFlexConfig() : new SparkMaxConfig();
+                pendingResult = new CompletableFuture<>();
+                CONFIG_EXECUTOR.execute(this::sendPendingDelta);
+            }
+            change.accept(pendingDelta);
+            return pendingResult;
+        }
+    }
+
+    private void sendPendingDelta() {
+        SparkBaseConfig delta;
+        CompletableFuture<REVLibError> result;
+        synchronized (this) {
+            delta = pendingDelta;
+            result = pendingResult;
+            pendingDelta = null;
+            pendingResult = null;
+        }
+        try {
+            REVLibError error = motor.configure(delta, SparkBase.ResetMode.kNoResetSafeParameters, SparkBase.PersistMode.kNoPersistParameters);
+            //the change may have included the encoder's conversion factors
+            readVelocityToPositionRate();
+            result.complete(error);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reads the encoder's conversion factors from the motor, to convert its velocity to position units per second in {@link #getRawSample()}.
+     * Only called from the config thread, since reading parameters blocks until the motor responds.
+     */
+    private void readVelocityToPositionRate() {
+        EncoderConfigAccessor encoder = motor instanceof SparkFlex flex ? flex.configAccessor.encoder : ((SparkMax) motor).configAccessor.encoder;
+        double rate = encoder.getPositionConversionFactor() / (encoder.getVelocityConversionFactor() * 60.0);
+        //a motor that did not respond reads 0, which would make the rate NaN or infinite, so the last rate is kept instead
+        if (Double.isFinite(rate) && rate != 0) velocityToPositionRate = rate;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the follower parameters are sent to the motor, without resetting any other parameters, and without waiting for the motor to respond.
+     */
     @Override
     public void follow(GenericMotorController<SparkBase> leader, boolean inverted) {
-        config.follow(leader.getMotor(),inverted);
-        motor.configure(config, SparkBase.ResetMode.kResetSafeParameters, SparkBase.PersistMode.kNoPersistParameters);
+        setpoints.invalidate();
+        updateConfig((sparkConfig) -> sparkConfig.follow(leader.getMotor(),inverted));
     }
 
     /**{@inheritDoc}*/
@@ -138,6 +346,7 @@ public class GenericSpark implements GenericMotorController<SparkBase> {
     /**{@inheritDoc}*/
     @Override
     public void stop() {
+        setpoints.invalidate();
         motor.stopMotor();
     }
 
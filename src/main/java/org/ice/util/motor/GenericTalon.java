@@ -1,5 +1,6 @@
 package org.ice.util.motor;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.configs.TalonFXSConfiguration;
@@ -12,8 +13,11 @@ import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Temperature;
+import edu.wpi.first.wpilibj.Timer;
 import org.ice.util.swerve.PIDValues;
 
+import java.util.EnumMap;
+
 /**
  * TalonFX and TalonFXS implementation of {@link GenericMotorController}
  * @see GenericSpark
@@ -25,6 +29,9 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
     private StatusSignal<Current> currentSignal;
     private StatusSignal<AngularVelocity> velocitySignal;
     private double posConversion = 1.0, veloConversion = 1.0;
+    //one reusable request per control type, so controlling the motor does not allocate
+    private final EnumMap<ControlType, ControlType.TalonRequest> requests = createRequests();
+    private final SetpointCache setpoints = new SetpointCache();
 
     /**
      * Constructs a new GenericTalon instance using the given motor.
@@ -36,6 +43,7 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
         positionSignal = motor.getPosition();
         currentSignal = motor.getTorqueCurrent();
         velocitySignal = motor.getVelocity();
+        StatusSignalRegistry.register(this.motor.getNetwork(), tempSignal, positionSignal, currentSignal, velocitySignal);
     }
 
     public GenericTalon(TalonFX motor, TalonFXConfiguration config) {
@@ -45,6 +53,7 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
         positionSignal = motor.getPosition();
         currentSignal = motor.getTorqueCurrent();
         velocitySignal = motor.getVelocity();
+        StatusSignalRegistry.register(this.motor.getNetwork(), tempSignal, positionSignal, currentSignal, velocitySignal);
     }
 
     public GenericTalon(TalonFXS motor, TalonFXSConfiguration config) {
@@ -54,6 +63,7 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
         positionSignal = motor.getPosition();
         currentSignal = motor.getTorqueCurrent();
         velocitySignal = motor.getVelocity();
+        StatusSignalRegistry.register(this.motor.getNetwork(), tempSignal, positionSignal, currentSignal, velocitySignal);
     }
 
     /**{@inheritDoc}*/
@@ -65,7 +75,22 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
     /**{@inheritDoc}*/
     @Override
     public void controlRaw(double input, ControlType type) {
-        motor.asTalon().setControl(type.asTalonControl(input));
+        if (!setpoints.shouldSend(input, type, Timer.getFPGATimestamp())) return;
+        motor.asTalon().setControl(requests.get(type).withInput(input));
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public SetpointCache getSetpointCache() {
+        return setpoints;
+    }
+
+    private static EnumMap<ControlType, ControlType.TalonRequest> createRequests() {
+        EnumMap<ControlType, ControlType.TalonRequest> requests = new EnumMap<>(ControlType.class);
+        for (ControlType type : ControlType.values()) {
+            requests.put(type, type.newTalonRequest());
+        }
+        return requests;
     }
 
     /**{@inheritDoc}*/
@@ -77,33 +102,61 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
 
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Temperature")
+    @Getter(key="Temperature",period=1)
     public double getTemp() {
-        return tempSignal.refresh().getValue().in(Units.Celsius);
+        StatusSignalRegistry.refreshIfStale();
+        return tempSignal.getValue().in(Units.Celsius);
     }
 
     /**{@inheritDoc}*/
     @Override
     public double getRawPosition() {
-        return positionSignal.refresh().getValue().in(Units.Rotations);
+        StatusSignalRegistry.refreshIfStale();
+        return positionSignal.getValue().in(Units.Rotations);
     }
 
     /**{@inheritDoc}*/
     @Override
     @Getter(key="Output Current")
     public double getOutputCurrent() {
-        return currentSignal.refresh().getValue().in(Units.Amps);
+        StatusSignalRegistry.refreshIfStale();
+        return currentSignal.getValue().in(Units.Amps);
     }
 
     /**{@inheritDoc}*/
     @Override
     public double getRawVelocity() {
+        StatusSignalRegistry.refreshIfStale();
         return velocitySignal.getValue().in(Units.RotationsPerSecond);
     }
 
+    /**
+     * {@inheritDoc}
+     * The timestamp of the sample is the time the position was received from the motor, converted to the {@link Timer#getFPGATimestamp() FPGA time base}.
+     */
+    @Override
+    public MotorSample getRawSample() {
+        StatusSignalRegistry.refreshIfStale();
+        return new MotorSample(
+                positionSignal.getValueAsDouble(),
+                velocitySignal.getValueAsDouble(),
+                StatusSignalRegistry.toFPGATime(positionSignal.getTimestamp().getTime())
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Uses Phoenix's own latency compensation, which is based on the time the position was received from the motor.
+     */
+    @Override
+    public double getCompensatedPosition() {
+        StatusSignalRegistry.refreshIfStale();
+        return BaseStatusSignal.getLatencyCompensatedValueAsDouble(positionSignal, velocitySignal)/posConversion;
+    }
+
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Conversion Factor")
+    @Getter(key="Conversion Factor",period=1)
     public double getPositionConversionFactor() {
         return posConversion;
     }
@@ -128,21 +181,60 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
 
     /**{@inheritDoc}*/
     @Override
-    @Getter(key="Motor ID")
+    @Getter(key="Motor ID",period=5)
     public int getMotorID() {
         return motor.isTalonFX() ? motor.asTalonFX().getDeviceID() : motor.asTalonFXS().getDeviceID();
     }
 
-    /**{@inheritDoc}*/
+    /**
+     * {@inheritDoc}
+     * The PID values are applied without waiting for the motor to respond.
+     */
     @Override
     public void setPID(PIDValues pid) {
-        if (motor.isTalonFX()) motor.asTalonFX().getConfigurator().apply(pid.asSlotConfig());
-        else motor.asTalonFXS().getConfigurator().apply(pid.asSlotConfig());
+        if (motor.isTalonFX()) motor.asTalonFX().getConfigurator().apply(pid.asSlotConfig(), 0);
+        else motor.asTalonFXS().getConfigurator().apply(pid.asSlotConfig(), 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Phoenix limits update frequencies to at least 4 Hz, so periods longer than 0.25 seconds are shortened to 0.25 seconds.
+     */
+    @Override
+    public void setSignalPeriod(MotorSignal signal, double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Signal period must be non-negative (" + seconds + ")");
+        getSignal(signal).setUpdateFrequency(seconds == 0 ? 0 : 1 / seconds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Uses Phoenix's {@code optimizeBusUtilization()}, which disables every signal of the motor that was not given an update frequency, including signals not covered by {@link MotorSignal}.
+     */
+    @Override
+    public void disableUnusedSignals() {
+        if (motor.isTalonFX()) motor.asTalonFX().optimizeBusUtilization();
+        else motor.asTalonFXS().optimizeBusUtilization();
+    }
+
+    /**
+     * Gets the Phoenix status signal this motor uses for the given signal, such as for sampling it with a {@link SignalAcquisition}.
+     * @param signal the signal
+     * @return the status signal
+     */
+    public StatusSignal<?> getSignal(MotorSignal signal) {
+        return switch (signal) {
+            case POSITION -> positionSignal;
+            case VELOCITY -> velocitySignal;
+            case CURRENT -> currentSignal;
+            case TEMPERATURE -> tempSignal;
+            case FAULTS -> motor.isTalonFX() ? motor.asTalonFX().getFaultField() : motor.asTalonFXS().getFaultField();
+        };
     }
 
     /**{@inheritDoc}*/
     @Override
     public void follow(GenericMotorController<CommonTalon> leader, boolean inverted) {
+        setpoints.invalidate();
         motor.asTalon().setControl(new Follower(leader.getMotorID(),inverted));
     }
 
@@ -155,6 +247,7 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
     /**{@inheritDoc}*/
     @Override
     public void stop() {
+        setpoints.invalidate();
         if (motor.isTalonFX()) motor.asTalonFX().stopMotor();
         else motor.asTalonFXS().stopMotor();
     }
@@ -190,5 +283,9 @@ public class GenericTalon implements GenericMotorController<CommonTalon> {
             return motor;
         }
 
+        public String getNetwork() {
+            return isTalonFX() ? motorFX.getNetwork() : motorFXS.getNetwork();
+        }
+
     }
 }
@@ -0,0 +1,288 @@
+package org.ice.util.motor;
+
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Reads every registered {@link GenericMotorController} once per loop, so that the rest of the loop reads the same values from memory instead of asking the motors again.
+ * {@link #sample()} reads the position and velocity of every motor in one pass, with the {@link GenericMotorController#getPositionConversionFactor() conversion factors} applied,
+ * after {@link StatusSignalRegistry#refreshAll() refreshing} every CTRE signal. Output current and temperature change slowly, so they are only read every {@link #setCurrentPeriod(double) current period}
+ * and {@link #setTemperaturePeriod(double) temperature period}, and keep their last value in between.
+ * </p>
+ * <p>
+ * Every value read from the bank comes from the same sample, taken at {@link #getTimestamp()}. Reading from the bank never locks:
+ * each sample is written into a second {@link Snapshot snapshot}, which then replaces the one readers see.
+ * </p>
+ * Each motor is identified by the index returned when it is registered:
+ * <pre>
+ *{@code
+ * int arm = MotorBank.register(armMotor);
+ *
+ * @Override
+ * public void robotPeriodic() {
+ *     MotorBank.sample();
+ *     CommandScheduler.getInstance().run();
+ * }
+ *
+ * double armPosition = MotorBank.getPosition(arm);
+ *}
+ *</pre>
+ */
+public final class MotorBank {
+
+    /**
+     * Default time between reads of the output current, in seconds.
+     */
+    public static final double DEFAULT_CURRENT_PERIOD = 0.1;
+    /**
+     * Default time between reads of the temperature, in seconds.
+     */
+    public static final double DEFAULT_TEMPERATURE_PERIOD = 1;
+
+    //the snapshot readers see, and the one the next sample is written into
+    private static volatile Snapshot front = new Snapshot(new GenericMotorController<?>[0], null);
+    private static Snapshot back = front;
+
+    private static double currentPeriod = DEFAULT_CURRENT_PERIOD;
+    private static double temperaturePeriod = DEFAULT_TEMPERATURE_PERIOD;
+    private static double lastCurrentSample = Double.NEGATIVE_INFINITY;
+    private static double lastTemperatureSample = Double.NEGATIVE_INFINITY;
+
+    private MotorBank() {}
+
+    /**
+     * Registers the given motor, which will be read by every following call to {@link #sample()}. The motor's values are NaN until the next sample.
+     * @param motor the motor to register
+     * @return the index of the motor, used to read its values
+     */
+    public static synchronized int register(GenericMotorController<?> motor) {
+        Snapshot previous = front;
+        GenericMotorController<?>[] motors = Arrays.copyOf(previous.motors, previous.motors.length + 1);
+        motors[motors.length - 1] = motor;
+        //readers may still be reading the current snapshots, so new ones are made instead of resizing them
+        back = new Snapshot(motors, previous);
+        front = new Snapshot(motors, previous);
+        //read the new motor's current and temperature in the next sample
+        lastCurrentSample = lastTemperatureSample = Double.NEGATIVE_INFINITY;
+        return motors.length - 1;
+    }
+
+    /**
+     * Reads every registered motor. This should be called once per loop, before anything reads from the bank.
+     */
+    public static synchronized void sample() {
+        StatusSignalRegistry.refreshAll();
+        Snapshot previous = front;
+        Snapshot next = back;
+        double now = Timer.getFPGATimestamp();
+        boolean readCurrent = now - lastCurrentSample >= currentPeriod;
+        boolean readTemperature = now - lastTemperatureSample >= temperaturePeriod;
+        if (readCurrent) lastCurrentSample = now;
+        if (readTemperature) lastTemperatureSample = now;
+
+        next.timestamp = now;
+        for (int i = 0; i < next.motors.length; i++) {
+            GenericMotorController<?> motor = next.motors[i];
+            next.positions[i] = motor.getPosition();
+            next.velocities[i] = motor.getVelocity();
+            next.currents[i] = readCurrent ? motor.getOutputCurrent() : previous.currents[i];
+            next.temperatures[i] = readTemperature ? motor.getTemp() : previous.temperatures[i];
+        }
+        front = next;
+        back = previous;
+    }
+
+    /**
+     * Gets the latest sample, which can be used to read several values that are guaranteed to come from the same sample.
+     * Since the bank alternates between two snapshots, the returned snapshot is reused two samples later, so it should not be kept for longer than a loop.
+     * @return the latest sample
+     */
+    public static Snapshot getSnapshot() {
+        return front;
+    }
+
+    /**
+     * @param index the index of the motor
+     * @return the position of the motor in the last sample, with its position conversion factor applied
+     * @see GenericMotorController#getPosition()
+     */
+    public static double getPosition(int index) {
+        return front.getPosition(index);
+    }
+
+    /**
+     * @param index the index of the motor
+     * @return the velocity of the motor in the last sample, with its velocity conversion factor applied
+     * @see GenericMotorController#getVelocity()
+     */
+    public static double getVelocity(int index) {
+        return front.getVelocity(index);
+    }
+
+    /**
+     * @param index the index of the motor
+     * @return the output current of the motor in the last sample, in Amps, which may be up to {@link #getCurrentPeriod() the current period} old
+     * @see GenericMotorController#getOutputCurrent()
+     */
+    public static double getOutputCurrent(int index) {
+        return front.getOutputCurrent(index);
+    }
+
+    /**
+     * @param index the index of the motor
+     * @return the temperature of the motor in the last sample, in Celsius, which may be up to {@link #getTemperaturePeriod() the temperature period} old
+     * @see GenericMotorController#getTemp()
+     */
+    public static double getTemp(int index) {
+        return front.getTemp(index);
+    }
+
+    /**
+     * @param index the index of the motor
+     * @return the registered motor with the given index
+     */
+    public static GenericMotorController<?> getMotor(int index) {
+        return front.getMotor(index);
+    }
+
+    /**
+     * @return the {@link Timer#getFPGATimestamp() FPGA timestamp} of the last sample in seconds, or NaN if {@link #sample()} was never called
+     */
+    public static double getTimestamp() {
+        return front.getTimestamp();
+    }
+
+    /**
+     * @return the number of registered motors
+     */
+    public static int size() {
+        return front.size();
+    }
+
+    /**
+     * Sets how often the output current of every motor is read. Defaults to {@link #DEFAULT_CURRENT_PERIOD}.
+     * @param seconds the time between reads in seconds, or 0 to read the current every sample
+     */
+    public static synchronized void setCurrentPeriod(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Current period must be non-negative (" + seconds + ")");
+        currentPeriod = seconds;
+    }
+
+    /**
+     * @return the time between reads of the output current, in seconds
+     */
+    public static synchronized double getCurrentPeriod() {
+        return currentPeriod;
+    }
+
+    /**
+     * Sets how often the temperature of every motor is read. Defaults to {@link #DEFAULT_TEMPERATURE_PERIOD}.
+     * @param seconds the time between reads in seconds, or 0 to read the temperature every sample
+     */
+    public static synchronized void setTemperaturePeriod(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Temperature period must be non-negative (" + seconds + ")");
+        temperaturePeriod = seconds;
+    }
+
+    /**
+     * @return the time between reads of the temperature, in seconds
+     */
+    public static synchronized double getTemperaturePeriod() {
+        return temperaturePeriod;
+    }
+
+    /**
+     * The values of every registered motor from a single {@link #sample()}.
+     * Snapshots are only written by the bank while no reader can see them, so reading one never locks.
+     */
+    public static final class Snapshot {
+
+        private final GenericMotorController<?>[] motors;
+        private final double[] positions, velocities, currents, temperatures;
+        private double timestamp;
+
+        /**
+         * Creates a snapshot of the given motors, with the values of the given snapshot for the motors it has, and NaN for the rest.
+         */
+        private Snapshot(GenericMotorController<?>[] motors, Snapshot previous) {
+            this.motors = motors;
+            positions = copy(previous == null ? null : previous.positions, motors.length);
+            velocities = copy(previous == null ? null : previous.velocities, motors.length);
+            currents = copy(previous == null ? null : previous.currents, motors.length);
+            temperatures = copy(previous == null ? null : previous.temperatures, motors.length);
+            timestamp = previous == null ? Double.NaN : previous.timestamp;
+        }
+
+        private static double[] copy(double[] values, int length) {
+            double[] copy = new double[length];
+            Arrays.fill(copy, Double.NaN);
+            if (values != null) System.arraycopy(values, 0, copy, 0, Math.min(values.length, length));
+            return copy;
+        }
+
+        /**
+         * @param index the index of the motor
+         * @return the position of the motor, with its position conversion factor applied
+         */
+        public double getPosition(int index) {
+            checkIndex(index);
+            return positions[index];
+        }
+
+        /**
+         * @param index the index of the motor
+         * @return the velocity of the motor, with its velocity conversion factor applied
+         */
+        public double getVelocity(int index) {
+            checkIndex(index);
+            return velocities[index];
+        }
+
+        /**
+         * @param index the index of the motor
+         * @return the output current of the motor, in Amps
+         */
+        public double getOutputCurrent(int index) {
+            checkIndex(index);
+            return currents[index];
+        }
+
+        /**
+         * @param index the index of the motor
+         * @return the temperature of the motor, in Celsius
+         */
+        public double getTemp(int index) {
+            checkIndex(index);
+            return temperatures[index];
+        }
+
+        /**
+         * @param index the index of the motor
+         * @return the registered motor with the given index
+         */
+        public GenericMotorController<?> getMotor(int index) {
+            checkIndex(index);
+            return motors[index];
+        }
+
+        /**
+         * @return the {@link Timer#getFPGATimestamp() FPGA timestamp} of the sample in seconds, or NaN if {@link #sample()} was never called
+         */
+        public double getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return the number of motors in the snapshot
+         */
+        public int size() {
+            return motors.length;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= motors.length) throw new IndexOutOfBoundsException("No motor registered with index " + index);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.ice.util.motor;
+
+/**
+ * A single reading of a motor's encoder, along with the time it was measured.
+ * @param position the position of the motor
+ * @param velocity the velocity of the motor, in position units per second (not necessarily the units of {@link GenericMotorController#getVelocity()})
+ * @param timestamp the time the reading was measured in seconds, in the same time base as {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp()}
+ */
+public record MotorSample(double position, double velocity, double timestamp) {
+
+    /**
+     * Estimates the position of the motor at the given time, assuming the motor kept moving at the measured velocity.
+     * @param time the time in seconds, in the same time base as the sample's {@link #timestamp() timestamp}
+     * @return the estimated position at the given time
+     */
+    public double positionAt(double time) {
+        return position + velocity * (time - timestamp);
+    }
+
+    /**
+     * @param time the time in seconds, in the same time base as the sample's {@link #timestamp() timestamp}
+     * @return how old the sample is at the given time, in seconds
+     */
+    public double ageAt(double time) {
+        return time - timestamp;
+    }
+}
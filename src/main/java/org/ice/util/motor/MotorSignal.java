@@ -0,0 +1,27 @@
+package org.ice.util.motor;
+
+/**
+ * Enum of the signals that a {@link GenericMotorController} reports, whose update periods can be set using {@link GenericMotorController#setSignalPeriod(MotorSignal, double)}.
+ */
+public enum MotorSignal {
+    /**
+     * The position of the motor's encoder
+     */
+    POSITION,
+    /**
+     * The velocity of the motor's encoder
+     */
+    VELOCITY,
+    /**
+     * The current drawn by the motor
+     */
+    CURRENT,
+    /**
+     * The temperature of the motor
+     */
+    TEMPERATURE,
+    /**
+     * The faults reported by the motor controller
+     */
+    FAULTS
+}
@@ -0,0 +1,58 @@
+package org.ice.util.motor;
+
+import edu.wpi.first.units.Units;
+import edu.wpi.first.units.measure.AngularVelocity;
+import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.Torque;
+
+/**
+ * The characteristics of a DC motor needed to simulate it, measured at {@link #NOMINAL_VOLTAGE the nominal voltage}.
+ * The specs of common motors are listed in {@link MotorConstants}, such as {@link MotorConstants.KrakenX60#SPEC}.
+ * @param freeSpeed the speed of the motor with no load, in radians per second
+ * @param stallTorque the torque of the motor when it is stalled, in Newton meters
+ * @param stallCurrent the current drawn by the motor when it is stalled, in Amps
+ * @see SimMotorController
+ */
+public record MotorSpec(double freeSpeed, double stallTorque, double stallCurrent) {
+
+    /**
+     * The voltage the motor characteristics are measured at.
+     */
+    public static final double NOMINAL_VOLTAGE = 12.0;
+
+    public MotorSpec {
+        if (!(freeSpeed > 0 && stallTorque > 0 && stallCurrent > 0)) throw new IllegalArgumentException("Motor characteristics must be positive");
+    }
+
+    /**
+     * Creates a motor spec from the given measures.
+     * @param freeSpeed the speed of the motor with no load
+     * @param stallTorque the torque of the motor when it is stalled
+     * @param stallCurrent the current drawn by the motor when it is stalled
+     * @return the new spec
+     */
+    public static MotorSpec from(AngularVelocity freeSpeed, Torque stallTorque, Current stallCurrent) {
+        return new MotorSpec(freeSpeed.in(Units.RadiansPerSecond), stallTorque.in(Units.NewtonMeters), stallCurrent.in(Units.Amps));
+    }
+
+    /**
+     * @return the resistance of the motor's windings, in Ohms
+     */
+    public double resistance() {
+        return NOMINAL_VOLTAGE / stallCurrent;
+    }
+
+    /**
+     * @return the torque produced per Amp of current, in Newton meters per Amp
+     */
+    public double torqueConstant() {
+        return stallTorque / stallCurrent;
+    }
+
+    /**
+     * @return the speed gained per Volt of back EMF, in radians per second per Volt
+     */
+    public double velocityConstant() {
+        return freeSpeed / NOMINAL_VOLTAGE;
+    }
+}
@@ -0,0 +1,131 @@
+package org.ice.util.motor;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * <p>
+ * Fixed size buffer of timestamped samples, written by a single thread and read by any number of {@link Reader readers} without locking.
+ * Once the buffer is full, each new sample overwrites the oldest one.
+ * </p>
+ * Samples are stored in primitive arrays, so writing and reading samples does not allocate. Readers check that the samples they copied were not overwritten while they were copying them,
+ * and skip any that were, so a reader that falls too far behind loses its oldest samples instead of reading corrupted ones.
+ */
+public final class SampleRing {
+
+    private final double[] timestamps;
+    private final double[] values;
+    private final int capacity;
+
+    //number of samples the writer has started writing, and number of samples it has finished writing
+    private volatile long claimed = 0;
+    private volatile long published = 0;
+
+    /**
+     * Creates a buffer that holds up to the given number of samples.
+     * @param capacity the number of samples
+     */
+    public SampleRing(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1 (" + capacity + ")");
+        this.capacity = capacity;
+        timestamps = new double[capacity];
+        values = new double[capacity];
+    }
+
+    /**
+     * Adds a sample, overwriting the oldest one if the buffer is full. Must only be called from a single thread.
+     * @param timestamp the time the sample was measured, in seconds, in the {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp() FPGA time base}
+     * @param value the value of the sample
+     */
+    void push(double timestamp, double value) {
+        long index = published;
+        claimed = index + 1;
+        //make sure readers see the claim before any of the sample is overwritten
+        VarHandle.releaseFence();
+        int slot = (int) (index % capacity);
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        published = index + 1;
+    }
+
+    /**
+     * @return the number of samples written since the buffer was created
+     */
+    public long getCount() {
+        return published;
+    }
+
+    /**
+     * @return the number of samples the buffer holds
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Creates a reader that starts at the next sample written. Each reader should only be used by a single thread.
+     * @return the new reader
+     */
+    public Reader reader() {
+        return new Reader(published);
+    }
+
+    /**
+     * Reads the samples of a {@link SampleRing} in order, keeping track of which samples it has already read.
+     */
+    public final class Reader {
+
+        private long cursor;
+        private long dropped = 0;
+        private long skipped = 0;
+
+        private Reader(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Copies every sample written since the last read into the given arrays, oldest first. If there are more samples than fit in the arrays, only the newest ones are copied, and the rest are counted as {@link #getSkipped() skipped}.
+         * @param timestampsOut the array the timestamps are copied into
+         * @param valuesOut the array the values are copied into, which must be the same length as the timestamps
+         * @return the number of samples copied
+         */
+        public int read(double[] timestampsOut, double[] valuesOut) {
+            if (timestampsOut.length != valuesOut.length) throw new IllegalArgumentException("Timestamp and value arrays must be the same length");
+            long end = published;
+            //samples older than the capacity were already overwritten, and older than the arrays' length don't fit
+            long available = Math.max(cursor, end - capacity);
+            long start = Math.max(available, end - timestampsOut.length);
+            int count = (int) (end - start);
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((start + i) % capacity);
+                timestampsOut[i] = timestamps[slot];
+                valuesOut[i] = values[slot];
+            }
+            //make sure the samples are copied before checking whether any were overwritten
+            VarHandle.acquireFence();
+            long firstValid = claimed - capacity;
+            int skip = (int) Math.max(0, Math.min(count, firstValid - start));
+            if (skip > 0) {
+                System.arraycopy(timestampsOut, skip, timestampsOut, 0, count - skip);
+                System.arraycopy(valuesOut, skip, valuesOut, 0, count - skip);
+            }
+            dropped += available - cursor + skip;
+            skipped += start - available;
+            cursor = end;
+            return count - skip;
+        }
+
+        /**
+         * @return the number of samples this reader missed, because they were overwritten before they were read
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return the number of samples this reader skipped, because there were more new samples than fit in the arrays given to {@link #read(double[], double[])}
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+    }
+}
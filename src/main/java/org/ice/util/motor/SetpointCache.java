@@ -0,0 +1,107 @@
+package org.ice.util.motor;
+
+/**
+ * <p>
+ * Remembers the last setpoint sent to a motor, so that sending the same setpoint again can be skipped.
+ * Commands usually set the same setpoint every loop, and for motors such as Sparks every setpoint is sent as its own CAN frame.
+ * </p>
+ * A setpoint is skipped if it has the same {@link ControlType} as the last one, is within {@link #setEpsilon(double) epsilon} of it, and the last setpoint was sent less than
+ * {@link #setKeepAlive(double) the keep alive time} ago. The setpoint is still sent every keep alive period, in case the motor missed or lost it.
+ * Each {@link GenericMotorController} has its own cache, which can be configured through {@link GenericMotorController#getSetpointCache()}:
+ * <pre>
+ *{@code
+ * motor.getSetpointCache().setEpsilon(0.001);
+ * motor.getSetpointCache().setKeepAlive(0.25);
+ *}
+ *</pre>
+ */
+public final class SetpointCache {
+
+    /**
+     * Default time after which a repeated setpoint is sent anyway, in seconds.
+     */
+    public static final double DEFAULT_KEEP_ALIVE = 0.1;
+
+    private double epsilon = 0;
+    private double keepAlive = DEFAULT_KEEP_ALIVE;
+
+    private ControlType lastType = null;
+    private double lastValue = 0;
+    private double lastSent = Double.NEGATIVE_INFINITY;
+
+    private long sent = 0, skipped = 0;
+
+    /**
+     * Checks whether the given setpoint should be sent to the motor, and remembers it if it should be.
+     * @param value the raw setpoint
+     * @param type the control type of the setpoint
+     * @param now the current time in seconds
+     * @return whether the setpoint should be sent
+     */
+    boolean shouldSend(double value, ControlType type, double now) {
+        if (type == lastType && Math.abs(value - lastValue) <= epsilon && now - lastSent < keepAlive) {
+            skipped++;
+            return false;
+        }
+        lastType = type;
+        lastValue = value;
+        lastSent = now;
+        sent++;
+        return true;
+    }
+
+    /**
+     * Forgets the last setpoint, so the next setpoint is always sent. This should be called whenever the motor is controlled without going through the cache.
+     */
+    public void invalidate() {
+        lastType = null;
+        lastSent = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Sets how close a setpoint has to be to the last one to be skipped. Defaults to 0, so only identical setpoints are skipped.
+     * @param epsilon the largest difference between skipped setpoints, in the motor's raw units
+     */
+    public void setEpsilon(double epsilon) {
+        if (!(epsilon >= 0)) throw new IllegalArgumentException("Epsilon must be non-negative (" + epsilon + ")");
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * @return the largest difference between skipped setpoints, in the motor's raw units
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Sets how long a setpoint can be skipped for before it is sent again. A keep alive time of 0 disables the cache, so every setpoint is sent.
+     * @param seconds the keep alive time, in seconds
+     * @see #DEFAULT_KEEP_ALIVE
+     */
+    public void setKeepAlive(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Keep alive time must be non-negative (" + seconds + ")");
+        keepAlive = seconds;
+    }
+
+    /**
+     * @return how long a setpoint can be skipped for before it is sent again, in seconds
+     */
+    public double getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return the number of setpoints sent to the motor
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * @return the number of setpoints skipped
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,166 @@
+package org.ice.util.motor;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Samples CTRE {@link StatusSignal status signals} on a dedicated thread, faster than the main loop. The thread waits for every added signal to update using
+ * {@link BaseStatusSignal#waitForAll(double, BaseStatusSignal...)}, so the signals are sampled together as soon as they arrive, and pushes every sample into the signal's {@link SampleRing}.
+ * Consumers such as odometry can then process every sample since the last loop, instead of only the latest one.
+ * </p>
+ * All the signals of one acquisition must be on the CAN bus it was created for, and must be added before it is {@link #start() started}:
+ * <pre>
+ *{@code
+ * SignalAcquisition acquisition = new SignalAcquisition("Drive", "", 250, 32);
+ * SampleRing.Reader position = acquisition.add(talon, talon.getPosition()).reader();
+ * acquisition.start();
+ *
+ * //every loop
+ * int count = position.read(timestamps, positions);
+ *}
+ *</pre>
+ * The added signals are copied, so sampling them does not interfere with the original signals, such as the ones refreshed by {@link StatusSignalRegistry}.
+ * The timestamps of the samples are {@link StatusSignalRegistry#toFPGATime(double) converted} to the {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp() FPGA time base}, so they can be compared with the main loop's time.
+ */
+public final class SignalAcquisition {
+
+    private final String name;
+    private final String canBus;
+    private final double frequency;
+    private final int capacity;
+
+    private final List<BaseStatusSignal> signals = new ArrayList<>();
+    private final List<SampleRing> rings = new ArrayList<>();
+
+    private Thread thread;
+    private int priority = Thread.NORM_PRIORITY;
+    private volatile boolean running = false;
+    private volatile long timeouts = 0;
+    private volatile long errors = 0;
+
+    /**
+     * Creates a new acquisition, which samples its signals at the given frequency once started.
+     * @param name the name of the acquisition, used to name its thread
+     * @param canBus the name of the CAN bus every signal is on, as given by {@link ParentDevice#getNetwork()}
+     * @param frequency the frequency the signals are updated and sampled at, in Hz
+     * @param capacity the number of samples kept for each signal
+     */
+    public SignalAcquisition(String name, String canBus, double frequency, int capacity) {
+        if (!(frequency > 0)) throw new IllegalArgumentException("Frequency must be positive (" + frequency + ")");
+        this.name = name;
+        this.canBus = busName(canBus);
+        this.frequency = frequency;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a copy of the given signal to be sampled.
+     * @param device the device the signal belongs to
+     * @param signal the signal to sample
+     * @return the buffer the samples of the signal are written to
+     * @throws IllegalStateException if the acquisition was already started
+     * @throws IllegalArgumentException if the device is on a different CAN bus than the acquisition
+     */
+    public synchronized SampleRing add(ParentDevice device, StatusSignal<?> signal) {
+        if (thread != null) throw new IllegalStateException("Cannot add signals to a started acquisition");
+        //signals on different buses can't be waited for together, so waitForAll would fail immediately every time
+        if (!busName(device.getNetwork()).equals(canBus)) {
+            throw new IllegalArgumentException("Device " + device.getDeviceID() + " is on CAN bus \"" + device.getNetwork() + "\", not \"" + canBus + "\"");
+        }
+        SampleRing ring = new SampleRing(capacity);
+        signals.add(signal.clone());
+        rings.add(ring);
+        return ring;
+    }
+
+    /**
+     * Sets the priority of the sampling thread. Defaults to {@link Thread#NORM_PRIORITY}, the same as the main thread,
+     * so sampling does not take time from the main loop.
+     * @param priority the thread priority, from {@link Thread#MIN_PRIORITY} to {@link Thread#MAX_PRIORITY}
+     */
+    public synchronized void setPriority(int priority) {
+        if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) throw new IllegalArgumentException("Invalid thread priority (" + priority + ")");
+        this.priority = priority;
+        if (thread != null) thread.setPriority(priority);
+    }
+
+    /**
+     * Sets every added signal to update at the acquisition's frequency, and starts sampling them.
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        if (signals.isEmpty()) throw new IllegalStateException("Cannot start an acquisition without signals");
+        BaseStatusSignal[] signalArray = signals.toArray(new BaseStatusSignal[0]);
+        SampleRing[] ringArray = rings.toArray(new SampleRing[0]);
+        BaseStatusSignal.setUpdateFrequencyForAll(frequency, signalArray);
+        running = true;
+        thread = new Thread(() -> run(signalArray, ringArray), name + " SignalAcquisition");
+        thread.setDaemon(true);
+        thread.setPriority(priority);
+        thread.start();
+    }
+
+    /**
+     * Stops sampling the signals, and waits for the sampling thread to finish. The acquisition cannot be started again.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Phoenix treats {@code "rio"} and {@code ""} as the same bus, the roboRIO's own bus.
+     */
+    private static String busName(String canBus) {
+        return canBus.equals("rio") ? "" : canBus;
+    }
+
+    private void run(BaseStatusSignal[] signals, SampleRing[] rings) {
+        //wait for up to two periods, so a single late frame does not count as a timeout
+        double timeout = 2.0 / frequency;
+        long periodNanos = (long) (1e9 / frequency);
+        while (running) {
+            StatusCode status = BaseStatusSignal.waitForAll(timeout, signals);
+            if (status == StatusCode.RxTimeout) {
+                timeouts++;
+                continue;
+            }
+            if (!status.isOK()) {
+                //other errors are returned immediately, so wait a period instead of retrying in a tight loop
+                errors++;
+                LockSupport.parkNanos(periodNanos);
+                continue;
+            }
+            for (int i = 0; i < signals.length; i++) {
+                rings[i].push(StatusSignalRegistry.toFPGATime(signals[i].getTimestamp().getTime()), signals[i].getValueAsDouble());
+            }
+        }
+    }
+
+    /**
+     * @return the number of times the signals did not all update within two periods
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return the number of times waiting for the signals failed with an error other than a timeout, such as a disconnected CAN bus
+     */
+    public long getErrors() {
+        return errors;
+    }
+}
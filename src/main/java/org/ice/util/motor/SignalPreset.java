@@ -0,0 +1,35 @@
+package org.ice.util.motor;
+
+/**
+ * Enum of common sets of {@link MotorSignal} update periods, which can be applied using {@link GenericMotorController#applySignalPreset(SignalPreset)}.
+ * A period of 0 disables the signal.
+ */
+public enum SignalPreset {
+    /**
+     * For motors that only follow another motor, and whose signals are never read. Only faults and temperature are reported.
+     */
+    FOLLOWER(0, 0, 0, 1.0, 0.25),
+    /**
+     * For motors whose signals are only read for telemetry, and not used for control.
+     */
+    TELEMETRY_ONLY(0.1, 0.1, 0.1, 1.0, 0.25),
+    /**
+     * For motors whose position and velocity are used for odometry or for control loops running faster than the main loop.
+     */
+    HIGH_RATE_ODOMETRY(0.005, 0.005, 0.05, 1.0, 0.25);
+
+    private final double[] periods;
+
+    SignalPreset(double position, double velocity, double current, double temperature, double faults) {
+        periods = new double[] {position, velocity, current, temperature, faults};
+    }
+
+    /**
+     * Gets the update period this preset uses for the given signal.
+     * @param signal the signal
+     * @return the update period in seconds, or 0 if the signal is disabled
+     */
+    public double getPeriod(MotorSignal signal) {
+        return periods[signal.ordinal()];
+    }
+}
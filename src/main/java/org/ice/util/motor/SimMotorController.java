@@ -0,0 +1,376 @@
+package org.ice.util.motor;
+
+import org.ice.util.swerve.PIDValues;
+
+/**
+ * <p>
+ * Simulated implementation of {@link GenericMotorController}, which models a DC motor driving a load through a gearbox.
+ * The motor is described by a {@link MotorSpec}, such as {@link MotorConstants.KrakenX60#SPEC}, and the load by its moment of inertia and the {@link GearRatio} between the motor and the load.
+ * </p>
+ * <p>
+ * The simulation only advances when {@link #step(double)} is called, so it does not depend on the robot's clock, and can be stepped faster than real time:
+ * </p>
+ * <pre>
+ *{@code
+ * SimMotorController motor = new SimMotorController(1, MotorConstants.KrakenX60.SPEC, new GearRatio("10:1"), 0.05);
+ * motor.setPID(new PIDValues(0.5, 0, 0));
+ * motor.control(3, ControlType.POSITION);
+ * for (int i = 0; i < 100; i++) motor.step(0.02);
+ *}
+ *</pre>
+ * <p>
+ * Like a real motor controller, the raw position is in rotations of the motor, and the raw velocity is in rotations per minute.
+ * Closed loop control types run a PID loop every millisecond of simulated time, on the raw position or velocity, with the output as a duty cycle.
+ * {@link ControlType#MM_POSITION} and {@link ControlType#MM_VELOCITY} follow a trapezoidal profile limited by {@link #setMotionConstraints(double, double) the motion constraints}.
+ * </p>
+ * When the motor is {@link #stop() stopped}, 0 Volts are applied, which brakes the motor with its back EMF.
+ */
+public class SimMotorController implements GenericMotorController<MotorSpec> {
+
+    /**
+     * Longest time the simulation advances by at once, in seconds. Also the period of the simulated PID loop.
+     */
+    public static final double SUBSTEP = 0.001;
+
+    /**
+     * Temperature reported by every simulated motor, in Celsius.
+     */
+    public static final double AMBIENT_TEMPERATURE = 25.0;
+
+    private final int id;
+    private final MotorSpec spec;
+    private final double gearing;
+    private final double inertia;
+
+    private double loadTorque = 0;
+
+    //rotations of the motor, and radians per second of the motor
+    private double position = 0, velocity = 0;
+    private double voltage = 0, current = 0;
+    private double time = 0;
+
+    private ControlType type = null;
+    private double setpoint = 0;
+    private double kP = 0, kI = 0, kD = 0, kFF = 0;
+    private double integral = 0, lastError = Double.NaN;
+    //time the last error was measured, since the substep before the current one may have been shorter
+    private double lastErrorTime = 0;
+
+    //profiled setpoint of the motion magic control types, in rotations and rotations per second
+    private double profilePosition = 0, profileVelocity = 0;
+    private double maxVelocity = Double.POSITIVE_INFINITY, maxAcceleration = Double.POSITIVE_INFINITY;
+
+    private SimMotorController leader = null;
+    private boolean followInverted = false;
+
+    private double posConversion = 1.0, veloConversion = 1.0;
+    private final SetpointCache setpoints = new SetpointCache();
+
+    /**
+     * Constructs a new simulated motor driving a load with the given moment of inertia through the given gear ratio.
+     * @param id the CAN ID reported by the motor
+     * @param spec the motor being simulated
+     * @param gearing the gear ratio from the motor to the load
+     * @param loadInertia the moment of inertia of the load, in kilogram square meters
+     */
+    public SimMotorController(int id, MotorSpec spec, GearRatio gearing, double loadInertia) {
+        if (!(loadInertia > 0)) throw new IllegalArgumentException("Load inertia must be positive (" + loadInertia + ")");
+        this.id = id;
+        this.spec = spec;
+        this.gearing = gearing.getConversionFactor();
+        //inertia of the load as felt by the motor
+        this.inertia = loadInertia * this.gearing * this.gearing;
+    }
+
+    /**
+     * Advances the simulation by the given time.
+     * @param seconds the time to advance by, in seconds
+     */
+    public void step(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Step must be non-negative (" + seconds + ")");
+        double remaining = seconds;
+        while (remaining > 0) {
+            double dt = Math.min(remaining, SUBSTEP);
+            voltage = computeVoltage(dt);
+            integrate(dt);
+            time += dt;
+            remaining -= dt;
+        }
+    }
+
+    private double computeVoltage(double dt) {
+        if (leader != null) return followInverted ? -leader.voltage : leader.voltage;
+        if (type == null) return 0;
+        return switch (type) {
+            case DUTY_CYCLE -> clamp(setpoint, 1) * MotorSpec.NOMINAL_VOLTAGE;
+            case VOLTAGE -> clamp(setpoint, MotorSpec.NOMINAL_VOLTAGE);
+            case POSITION -> pid(setpoint, position, dt, 0);
+            case VELOCITY -> pid(setpoint, getRawVelocity(), dt, kFF * setpoint);
+            case MM_POSITION -> {
+                advancePositionProfile(dt);
+                yield pid(profilePosition, position, dt, kFF * profileVelocity * 60);
+            }
+            case MM_VELOCITY -> {
+                profileVelocity = approach(profileVelocity, setpoint / 60, maxAcceleration * dt);
+                yield pid(profileVelocity * 60, getRawVelocity(), dt, kFF * profileVelocity * 60);
+            }
+        };
+    }
+
+    private double pid(double target, double measurement, double dt, double feedForward) {
+        double error = target - measurement;
+        integral += error * dt;
+        double elapsed = time - lastErrorTime;
+        double derivative = Double.isNaN(lastError) || elapsed <= 0 ? 0 : (error - lastError) / elapsed;
+        lastError = error;
+        lastErrorTime = time;
+        return clamp(kP * error + kI * integral + kD * derivative + feedForward, 1) * MotorSpec.NOMINAL_VOLTAGE;
+    }
+
+    private void advancePositionProfile(double dt) {
+        double error = setpoint - profilePosition;
+        if (error == 0) {
+            profileVelocity = 0;
+            return;
+        }
+        //fastest speed the profile can move at while still being able to stop at the setpoint
+        double target = Math.copySign(Math.min(maxVelocity, Math.sqrt(2 * maxAcceleration * Math.abs(error))), error);
+        profileVelocity = approach(profileVelocity, target, maxAcceleration * dt);
+        double next = profilePosition + profileVelocity * dt;
+        if (Double.isInfinite(profileVelocity) || (next - setpoint) * error >= 0) {
+            profilePosition = setpoint;
+            profileVelocity = 0;
+        } else {
+            profilePosition = next;
+        }
+    }
+
+    /**
+     * Integrates the motor's velocity and position over the given time, using the exact solution of the motor's dynamics for a constant voltage.
+     */
+    private void integrate(double dt) {
+        double resistance = spec.resistance();
+        double kT = spec.torqueConstant();
+        double kV = spec.velocityConstant();
+        //dw/dt = a*w + c
+        double a = -kT / (resistance * kV * inertia);
+        double c = kT * voltage / (resistance * inertia) + loadTorque * gearing / inertia;
+        double decay = Math.exp(a * dt);
+        double steadyState = -c / a;
+        double distance = steadyState * dt + (velocity - steadyState) * (decay - 1) / a;
+        velocity = steadyState + (velocity - steadyState) * decay;
+        position += distance / (2 * Math.PI);
+        current = (voltage - velocity / kV) / resistance;
+    }
+
+    private static double approach(double value, double target, double maxChange) {
+        if (Double.isInfinite(maxChange)) return target;
+        return value + Math.max(-maxChange, Math.min(maxChange, target - value));
+    }
+
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+
+    /**
+     * Sets the external torque applied to the load, such as from gravity or a spring. The torque should be updated before each {@link #step(double) step} if it depends on the position of the load.
+     * @param newtonMeters the torque, in Newton meters, positive in the direction of positive motor rotation
+     */
+    public void setLoadTorque(double newtonMeters) {
+        loadTorque = newtonMeters;
+    }
+
+    /**
+     * Sets the limits of the profile followed by {@link ControlType#MM_POSITION} and {@link ControlType#MM_VELOCITY}. Both are unlimited by default.
+     * @param maxVelocity the maximum velocity of the profile, in raw position units (motor rotations) per second
+     * @param maxAcceleration the maximum acceleration of the profile, in raw position units (motor rotations) per second squared
+     */
+    public void setMotionConstraints(double maxVelocity, double maxAcceleration) {
+        if (!(maxVelocity > 0 && maxAcceleration > 0)) throw new IllegalArgumentException("Motion constraints must be positive");
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+    }
+
+    /**
+     * @return the voltage applied to the motor during the last step, in Volts
+     */
+    @Getter(key="Applied Voltage")
+    public double getAppliedVoltage() {
+        return voltage;
+    }
+
+    /**
+     * @return the total time the simulation has been stepped by, in seconds
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public MotorSpec getMotor() {
+        return spec;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public void controlRaw(double input, ControlType type) {
+        if (!setpoints.shouldSend(input, type, time)) return;
+        leader = null;
+        if (type != this.type) {
+            integral = 0;
+            lastError = Double.NaN;
+            profilePosition = position;
+            profileVelocity = velocity / (2 * Math.PI);
+        }
+        this.type = type;
+        setpoint = input;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public SetpointCache getSetpointCache() {
+        return setpoints;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    @Getter(key="Power")
+    public double get() {
+        return voltage / MotorSpec.NOMINAL_VOLTAGE;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Simulated motors do not heat up, so this is always {@link #AMBIENT_TEMPERATURE}.
+     */
+    @Override
+    @Getter(key="Temperature",period=1)
+    public double getTemp() {
+        return AMBIENT_TEMPERATURE;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    @Getter(key="Output Current")
+    public double getOutputCurrent() {
+        return Math.abs(current);
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public double getRawPosition() {
+        return position;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public double getRawVelocity() {
+        return velocity * 60 / (2 * Math.PI);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The timestamp of the sample is the {@link #getTime() simulation time}.
+     */
+    @Override
+    public MotorSample getRawSample() {
+        return new MotorSample(position, velocity / (2 * Math.PI), time);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Simulated readings have no latency, so this is the same as {@link #getPosition()}.
+     */
+    @Override
+    public double getCompensatedPosition() {
+        return getPosition();
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    @Getter(key="Conversion Factor",period=1)
+    public double getPositionConversionFactor() {
+        return posConversion;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public void setPositionConversionFactor(double factor) {
+        posConversion = factor;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public double getVelocityConversionFactor() {
+        return veloConversion;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public void setVelocityConversionFactor(double factor) {
+        veloConversion = factor;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    @Getter(key="Motor ID",period=5)
+    public int getMotorID() {
+        return id;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public void setPID(PIDValues pid) {
+        kP = pid.getP();
+        kI = pid.getI();
+        kD = pid.getD();
+        kFF = pid.getFF();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The leader must also be a SimMotorController. The follower applies the same voltage the leader applied in its last step.
+     */
+    @Override
+    public void follow(GenericMotorController<MotorSpec> leader, boolean inverted) {
+        if (!(leader instanceof SimMotorController simLeader)) throw new IllegalArgumentException("Simulated motors can only follow other simulated motors");
+        setpoints.invalidate();
+        this.leader = simLeader;
+        followInverted = inverted;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Simulated motors have no signals, so this does nothing.
+     */
+    @Override
+    public void setSignalPeriod(MotorSignal signal, double seconds) {}
+
+    /**
+     * {@inheritDoc}
+     * Simulated motors have no signals, so this does nothing.
+     */
+    @Override
+    public void disableUnusedSignals() {}
+
+    /**
+     * {@inheritDoc}
+     * The profile of {@link ControlType#MM_POSITION} is moved along with the encoder, so the motor keeps following it from the same physical position.
+     */
+    @Override
+    public void setEncoderPosition(double value) {
+        profilePosition += value - position;
+        //the error jumps along with the encoder, which must not count as a derivative
+        lastError = Double.NaN;
+        position = value;
+    }
+
+    /**{@inheritDoc}*/
+    @Override
+    public void stop() {
+        setpoints.invalidate();
+        leader = null;
+        type = null;
+    }
+}
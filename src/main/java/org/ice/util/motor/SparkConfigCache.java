@@ -0,0 +1,154 @@
+package org.ice.util.motor;
+
+import com.revrobotics.REVLibError;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.SparkFlex;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.SparkBaseConfig;
+import com.revrobotics.spark.config.SparkBaseConfigAccessor;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+
+/**
+ * <p>
+ * Avoids writing the same config to a Spark's flash on every boot. Each config is fingerprinted, and the fingerprint of the last config persisted to each Spark is stored in a file in the
+ * {@link Filesystem#getOperatingDirectory() operating directory}. The config is always applied, but it is only persisted if its fingerprint differs from the stored one,
+ * which saves time at startup and avoids wearing out the Spark's flash.
+ * </p>
+ * <p>
+ * Sparks have no storage for the fingerprint itself, so the Spark is matched by the parameters it holds before the config is applied, which are the ones in its flash after a power cycle.
+ * A few of them (such as the idle mode, current limit, and conversion factors) are read and stored along with the fingerprint when the config is persisted.
+ * If they don't match on the next boot, such as when a Spark is replaced with one that has the same CAN ID, the config is persisted again.
+ * </p>
+ * The number of persisted and skipped configs, and the time spent configuring, are included in the {@link StartupConfigurator.Report report} of a {@link StartupConfigurator},
+ * and are also available from {@link #getReport()}.
+ */
+public final class SparkConfigCache {
+
+    private static final String FILE_NAME = "spark_config_fingerprints.properties";
+
+    private static Properties fingerprints = null;
+
+    private static int persisted = 0, skipped = 0;
+    private static long configureNanos = 0;
+
+    private SparkConfigCache() {}
+
+    /**
+     * Applies the given config to the given motor, persisting it only if it differs from the config last persisted to the motor,
+     * or if the motor does not hold the parameters it held when the config was last persisted.
+     * @param motor the motor to configure
+     * @param config the config to apply
+     * @param resetMode whether the motor's safe parameters should be reset before the config is applied
+     * @return the result of configuring the motor
+     */
+    public static REVLibError configure(SparkBase motor, SparkBaseConfig config, SparkBase.ResetMode resetMode) {
+        long start = System.nanoTime();
+        String key = Integer.toString(motor.getDeviceId());
+        String fingerprint = fingerprint(config, resetMode);
+        boolean changed = !(fingerprint + "/" + deviceSignature(motor)).equals(getFingerprint(key));
+        REVLibError error = motor.configure(config, resetMode, changed ? SparkBase.PersistMode.kPersistParameters : SparkBase.PersistMode.kNoPersistParameters);
+        //only remember configs that were persisted successfully, so failed ones are retried on the next boot
+        String persistedFingerprint = changed && error == REVLibError.kOk ? fingerprint + "/" + deviceSignature(motor) : null;
+        synchronized (SparkConfigCache.class) {
+            if (changed) {
+                if (persistedFingerprint != null) {
+                    fingerprints.setProperty(key, persistedFingerprint);
+                    save();
+                }
+                persisted++;
+            } else {
+                skipped++;
+            }
+            configureNanos += System.nanoTime() - start;
+        }
+        return error;
+    }
+
+    private static String fingerprint(SparkBaseConfig config, SparkBase.ResetMode resetMode) {
+        return Integer.toHexString((config.flatten() + resetMode).hashCode());
+    }
+
+    /**
+     * Reads a few parameters that most configs set from the given motor, to tell whether it still holds the config that was persisted to it.
+     */
+    private static String deviceSignature(SparkBase motor) {
+        SparkBaseConfigAccessor accessor = motor instanceof SparkFlex flex ? flex.configAccessor : ((SparkMax) motor).configAccessor;
+        String signature = accessor.getIdleMode() + "," + accessor.getInverted() + "," + accessor.getSmartCurrentLimit() + ","
+                + accessor.encoder.getPositionConversionFactor() + "," + accessor.encoder.getVelocityConversionFactor() + "," + accessor.closedLoop.getP();
+        return Integer.toHexString(signature.hashCode());
+    }
+
+    private static synchronized String getFingerprint(String key) {
+        if (fingerprints == null) load();
+        return fingerprints.getProperty(key);
+    }
+
+    private static void load() {
+        fingerprints = new Properties();
+        File file = getFile();
+        if (!file.exists()) return;
+        try (Reader reader = new FileReader(file)) {
+            fingerprints.load(reader);
+        } catch (IOException e) {
+            DriverStation.reportWarning("Failed to read Spark config fingerprints, every config will be persisted: " + e.getMessage(), false);
+        }
+    }
+
+    private static void save() {
+        try (Writer writer = new FileWriter(getFile())) {
+            fingerprints.store(writer, "Fingerprints of the configs persisted to each Spark, and of the parameters the Spark held afterwards, by CAN ID");
+        } catch (IOException e) {
+            DriverStation.reportWarning("Failed to save Spark config fingerprints: " + e.getMessage(), false);
+        }
+    }
+
+    private static File getFile() {
+        return new File(Filesystem.getOperatingDirectory(), FILE_NAME);
+    }
+
+    /**
+     * Forgets every stored fingerprint, so every config is persisted again the next time it is applied.
+     */
+    public static synchronized void clear() {
+        fingerprints = new Properties();
+        File file = getFile();
+        if (file.exists() && !file.delete()) DriverStation.reportWarning("Failed to delete " + file, false);
+    }
+
+    /**
+     * @return the number of configs that were persisted, because they changed since they were last persisted
+     */
+    public static synchronized int getPersisted() {
+        return persisted;
+    }
+
+    /**
+     * @return the number of configs that were not persisted, because they were already persisted
+     */
+    public static synchronized int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return the total time spent configuring motors through this cache, in seconds
+     */
+    public static synchronized double getConfigureSeconds() {
+        return configureNanos / 1e9;
+    }
+
+    /**
+     * @return a summary of how many configs were persisted and skipped, and how long configuring took
+     */
+    public static synchronized String getReport() {
+        return String.format("Spark configs: %d persisted, %d already persisted, %.3f s configuring", persisted, skipped, configureNanos / 1e9);
+    }
+}
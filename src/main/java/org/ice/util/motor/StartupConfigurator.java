@@ -0,0 +1,187 @@
+package org.ice.util.motor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Configures devices in parallel at startup. Configuring a device usually blocks until the device responds, so configuring every device one after another can add seconds to startup.
+ * Each device is configured on its own thread, with a limit on how many devices on the same CAN bus are configured at once, so that a single bus is not flooded.
+ * </p>
+ * Every device is submitted with a name and the CAN bus it is on, and {@link #join()} waits for every device and reports how long each one took, and which ones failed.
+ * Something that configures several devices at once, such as a swerve module, can be submitted as {@link #submit(String, String, int, Supplier) that many devices}, so it counts that many times towards the limit of its bus:
+ * <pre>
+ *{@code
+ * StartupConfigurator configurator = new StartupConfigurator();
+ * CompletableFuture<GenericSpark> arm = configurator.submit("Arm", StartupConfigurator.RIO_BUS, () -> new GenericSpark(armMotor, armConfig));
+ * CompletableFuture<GenericSpark> wrist = configurator.submit("Wrist", StartupConfigurator.RIO_BUS, () -> new GenericSpark(wristMotor, wristConfig));
+ * System.out.println(configurator.join());
+ *}
+ *</pre>
+ */
+public final class StartupConfigurator {
+
+    /**
+     * Default number of devices on the same CAN bus that can be configured at once.
+     */
+    public static final int DEFAULT_BUS_LIMIT = 4;
+
+    /**
+     * Name of the roboRIO's own CAN bus, which every REV device is on. CTRE also accepts {@code "rio"} for this bus, which is treated as the same bus.
+     */
+    public static final String RIO_BUS = "";
+
+    private final int busLimit;
+    private final Map<String, Semaphore> buses = new ConcurrentHashMap<>();
+    private final List<Task<?>> tasks = new ArrayList<>();
+    private final long start = System.nanoTime();
+    private final ExecutorService executor = Executors.newCachedThreadPool((runnable) -> {
+        Thread thread = new Thread(runnable, "StartupConfigurator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a configurator that configures up to {@link #DEFAULT_BUS_LIMIT} devices on each CAN bus at once.
+     */
+    public StartupConfigurator() {
+        this(DEFAULT_BUS_LIMIT);
+    }
+
+    /**
+     * Creates a configurator that configures up to the given number of devices on each CAN bus at once.
+     * @param busLimit the number of devices on the same CAN bus that can be configured at once
+     */
+    public StartupConfigurator(int busLimit) {
+        if (busLimit < 1) throw new IllegalArgumentException("Bus limit must be at least 1 (" + busLimit + ")");
+        this.busLimit = busLimit;
+    }
+
+    /**
+     * Starts configuring a device on another thread.
+     * @param name the name of the device, used in the {@link Report report}
+     * @param canBus the name of the CAN bus the device is on
+     * @param configure configures the device, and returns the result, such as the constructed motor
+     * @return a future completed with the result of configuring the device
+     * @param <T> the type of the result
+     */
+    public <T> CompletableFuture<T> submit(String name, String canBus, Supplier<T> configure) {
+        return submit(name, canBus, 1, configure);
+    }
+
+    /**
+     * Starts configuring several devices on the same CAN bus on another thread, such as every device of a swerve module.
+     * The devices count towards the limit of the bus as if each was submitted on its own, but never more than the whole limit, so they can always be configured.
+     * @param name the name of the devices, used in the {@link Report report}
+     * @param canBus the name of the CAN bus the devices are on
+     * @param devices the number of devices configured
+     * @param configure configures the devices, and returns the result, such as the constructed module
+     * @return a future completed with the result of configuring the devices
+     * @param <T> the type of the result
+     */
+    public synchronized <T> CompletableFuture<T> submit(String name, String canBus, int devices, Supplier<T> configure) {
+        if (executor.isShutdown()) throw new IllegalStateException("Cannot submit devices after join() was called");
+        if (devices < 1) throw new IllegalArgumentException("Must configure at least 1 device (" + devices + ")");
+        //fair, so devices that need several permits are not starved by single devices
+        Semaphore bus = buses.computeIfAbsent("rio".equals(canBus) ? RIO_BUS : canBus, (key) -> new Semaphore(busLimit, true));
+        int permits = Math.min(devices, busLimit);
+        Task<T> task = new Task<>(name, canBus);
+        task.future = CompletableFuture.supplyAsync(() -> {
+            bus.acquireUninterruptibly(permits);
+            long taskStart = System.nanoTime();
+            try {
+                return configure.get();
+            } finally {
+                task.nanos = System.nanoTime() - taskStart;
+                bus.release(permits);
+            }
+        }, executor);
+        tasks.add(task);
+        return task.future;
+    }
+
+    /**
+     * Waits for every submitted device to be configured. No more devices can be submitted after this is called.
+     * @return the report of how long each device took to configure, and which devices failed
+     */
+    public synchronized Report join() {
+        executor.shutdown();
+        List<DeviceResult> devices = new ArrayList<>(tasks.size());
+        for (Task<?> task : tasks) {
+            Throwable error = null;
+            try {
+                task.future.join();
+            } catch (CompletionException e) {
+                error = e.getCause();
+            }
+            devices.add(new DeviceResult(task.name, task.canBus, task.nanos / 1e9, error));
+        }
+        boolean usedSparkCache = SparkConfigCache.getPersisted() + SparkConfigCache.getSkipped() > 0;
+        return new Report(Collections.unmodifiableList(devices), (System.nanoTime() - start) / 1e9, usedSparkCache ? SparkConfigCache.getReport() : null);
+    }
+
+    private static final class Task<T> {
+
+        private final String name, canBus;
+        private CompletableFuture<T> future;
+        private volatile long nanos;
+
+        private Task(String name, String canBus) {
+            this.name = name;
+            this.canBus = canBus;
+        }
+    }
+
+    /**
+     * The result of configuring a single device.
+     * @param name the name of the device
+     * @param canBus the name of the CAN bus the device is on
+     * @param seconds how long configuring the device took, not including time spent waiting for other devices on the same bus
+     * @param error the error thrown while configuring the device, or null if it was configured successfully
+     */
+    public record DeviceResult(String name, String canBus, double seconds, Throwable error) {
+
+        /**
+         * @return whether the device was configured successfully
+         */
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    /**
+     * The results of configuring every device submitted to a {@link StartupConfigurator}.
+     * @param devices the result of every device, in the order they were submitted
+     * @param seconds how long it took from creating the configurator until every device was configured
+     * @param sparkConfigs the {@link SparkConfigCache#getReport() report} of how many Spark configs were persisted so far, or null if no Spark was configured through the cache
+     */
+    public record Report(List<DeviceResult> devices, double seconds, String sparkConfigs) {
+
+        /**
+         * @return the results of the devices that failed to configure
+         */
+        public List<DeviceResult> failures() {
+            return devices.stream().filter((device) -> !device.succeeded()).toList();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("Configured %d devices in %.3f s", devices.size(), seconds));
+            for (DeviceResult device : devices) {
+                builder.append(String.format("%n  %s (%s): %.3f s", device.name(), device.canBus(), device.seconds()));
+                if (!device.succeeded()) builder.append(" FAILED: ").append(device.error());
+            }
+            if (sparkConfigs != null) builder.append(String.format("%n")).append(sparkConfigs);
+            return builder.toString();
+        }
+    }
+}
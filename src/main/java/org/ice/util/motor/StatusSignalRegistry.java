@@ -0,0 +1,109 @@
+package org.ice.util.motor;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.Utils;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Refreshes the {@link BaseStatusSignal status signals} of every registered CTRE device together, instead of each getter refreshing its own signal.
+ * {@link GenericTalon} and {@link org.ice.util.swerve.CTRESwerveModule CTRESwerveModule} register their signals when they are constructed,
+ * and their getters return the value from the last refresh.
+ * </p>
+ * Signals are grouped by CAN bus, and {@link #refreshAll()} refreshes each bus with a single call to {@link BaseStatusSignal#refreshAll(BaseStatusSignal...)}.
+ * This should be called once per loop, before anything reads the signals:
+ * <pre>
+ *{@code
+ * @Override
+ * public void robotPeriodic() {
+ *     StatusSignalRegistry.refreshAll();
+ *     CommandScheduler.getInstance().run();
+ * }
+ *}
+ *</pre>
+ * If {@link #refreshAll()} is not called, the getters refresh every signal the first time they are read after the signals become older than {@link #setMaxAge(double) the max age}.
+ */
+public final class StatusSignalRegistry {
+
+    private static final Map<String, BaseStatusSignal[]> buses = new LinkedHashMap<>();
+
+    private static double maxAge = 0.02;
+    private static double lastRefresh = Double.NEGATIVE_INFINITY;
+
+    private StatusSignalRegistry() {}
+
+    /**
+     * Registers the given signals, which will be refreshed by every following call to {@link #refreshAll()}.
+     * @param canBus the name of the CAN bus the signals' device is on, as given by {@link com.ctre.phoenix6.hardware.ParentDevice#getNetwork()}
+     * @param signals the signals to register
+     */
+    public static synchronized void register(String canBus, BaseStatusSignal... signals) {
+        BaseStatusSignal[] registered = buses.getOrDefault(canBus, new BaseStatusSignal[0]);
+        BaseStatusSignal[] combined = Arrays.copyOf(registered, registered.length + signals.length);
+        System.arraycopy(signals, 0, combined, registered.length, signals.length);
+        buses.put(canBus, combined);
+        //make sure the new signals have a value before they are first read
+        lastRefresh = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Refreshes every registered signal, with one call per CAN bus.
+     * @return {@link StatusCode#OK}, or the first error returned while refreshing
+     */
+    public static synchronized StatusCode refreshAll() {
+        StatusCode result = StatusCode.OK;
+        for (BaseStatusSignal[] signals : buses.values()) {
+            StatusCode status = BaseStatusSignal.refreshAll(signals);
+            if (result.isOK() && !status.isOK()) result = status;
+        }
+        lastRefresh = Timer.getFPGATimestamp();
+        return result;
+    }
+
+    /**
+     * Refreshes every registered signal if they were last refreshed longer ago than {@link #getMaxAge() the max age}.
+     * Called by the getters of registered devices, so the signals are still refreshed if {@link #refreshAll()} is never called.
+     */
+    public static synchronized void refreshIfStale() {
+        if (Timer.getFPGATimestamp() - lastRefresh > maxAge) refreshAll();
+    }
+
+    /**
+     * Sets how old the signals can be before a getter refreshes them. Defaults to 0.02 seconds (one loop).
+     * @param seconds the max age in seconds
+     */
+    public static synchronized void setMaxAge(double seconds) {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("Max age must be non-negative (" + seconds + ")");
+        maxAge = seconds;
+    }
+
+    /**
+     * @return how old the signals can be before a getter refreshes them, in seconds
+     */
+    public static synchronized double getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * @return the {@link Timer#getFPGATimestamp() FPGA timestamp} of the last refresh, in seconds
+     */
+    public static synchronized double getLastRefresh() {
+        return lastRefresh;
+    }
+
+    /**
+     * Converts a time from Phoenix's time base, such as the {@link BaseStatusSignal#getTimestamp() timestamp} of a signal, to the {@link Timer#getFPGATimestamp() FPGA time base}.
+     * The age of the time is measured with {@link Utils#getCurrentTimeSeconds()}, so the conversion should be done soon after the signal is received.
+     * @param phoenixTime the time in seconds, in the time base of {@link Utils#getCurrentTimeSeconds()}
+     * @return the same time in seconds, in the time base of {@link Timer#getFPGATimestamp()}
+     */
+    public static double toFPGATime(double phoenixTime) {
+        double age = Utils.getCurrentTimeSeconds() - phoenixTime;
+        return Timer.getFPGATimestamp() - age;
+    }
+}
@@ -1,14 +1,11 @@
 package org.ice.util.sendable;
 
+import edu.wpi.first.networktables.NTSendableBuilder;
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.util.sendable.SendableBuilder;
 
 import java.lang.annotation.*;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -49,14 +46,49 @@ import java.util.function.Supplier;
  * ValidType someOtherValue = bar;
  *}
  *</pre>
+ * Getters and Variables can also control how often their value is read and published, using the optional {@link Getter#period() period},
+ * {@link Getter#onChange() onChange}, and {@link Getter#epsilon() epsilon} values. Values that never change, or are expensive to read, can be read less often:
+ * <pre>
+ *{@code
+ * @Getter(key="someKey",period=1)
+ * public ValidType someGetter() {
+ *     return someValue;
+ * }
+ *
+ * @Variable(key="someOtherKey",onChange=true,epsilon=0.01)
+ * double someOtherValue = bar;
+ *}
+ *</pre>
+ * The {@link Nested Nested} annotation adds every property of another AnnotatedSendable (such as a motor of a subsystem), so a whole mechanism can be published as one sendable:
+ * <pre>
+ *{@code
+ * @Nested(key="Motor")
+ * public GenericMotorController<?> getMotor() {
+ *     return motor;
+ * }
+ *}
+ *</pre>
+ * When several properties are set from the dashboard in the same update, they are surrounded by calls to {@link #beginPropertyChanges()} and {@link #endPropertyChanges()},
+ * so implementations can apply them together.
+ * Classes annotated with {@link Packed Packed} publish all of their primitive properties as one struct, rather than one topic per property.
+ * Properties can also stop being read while no dashboard is subscribed to them, see {@link SubscriberGate}.
+ * To move publishing off of the main robot thread, see {@link TelemetryPublisher}.
+ * To record properties directly into a {@code DataLog}, see {@link DataLogRecorder}.
+ * To find properties that are expensive to read, see {@link PropertyProfiler}.
+ * To limit how much time is spent reading properties every loop, see {@link TelemetryScheduler}.
+ * Properties are found using reflection, unless the implementing class was compiled with the {@code org.ice.util.sendable.processor.SendableSchemaProcessor} annotation processor,
+ * in which case the {@link GeneratedSchema generated schema} of the class is used instead. Either way, properties are only found and validated once per class.
  * @see Getter
  * @see Setter
  * @see Variable
+ * @see Nested
+ * @see Packed
  */
 public interface AnnotatedSendable extends Sendable {
 
     /**
      * Annotation used to mark "getter" methods for a property of the given key. For more details, see {@link AnnotatedSendable}.
+     * Java does not inherit annotations on methods, so when a getter is overridden (including abstract getters), only the annotation on the override is used.
      * @see Setter
      */
     @Retention(RetentionPolicy.RUNTIME)
@@ -64,6 +96,26 @@ public interface AnnotatedSendable extends Sendable {
     @Inherited
     @interface Getter {
         String key();
+        /**
+         * The minimum time between two reads of the property in seconds. Between reads, the last value is published again.
+         * Useful for values that rarely change, or are expensive to read (such as values read over CAN). Defaults to {@code 0}, which reads the property every update.
+         */
+        double period() default 0;
+        /**
+         * Whether a new value should only be published when it differs from the last published value by more than {@link #epsilon() epsilon}.
+         * Defaults to {@code false}.
+         */
+        boolean onChange() default false;
+        /**
+         * The amount a numeric property must change by before a new value is published, only used if {@link #onChange() onChange} is {@code true}.
+         * Defaults to {@code 0}, which publishes any change.
+         */
+        double epsilon() default 0;
+        /**
+         * How important it is that the property is read every loop, used by the {@link TelemetryScheduler} to decide which properties to skip when over budget.
+         * Defaults to {@link TelemetryPriority#NORMAL NORMAL}.
+         */
+        TelemetryPriority priority() default TelemetryPriority.NORMAL;
     }
 
     /**
@@ -83,50 +135,83 @@ public interface AnnotatedSendable extends Sendable {
     @interface Variable {
         String key();
         boolean mutable() default true;
+        /**
+         * The minimum time between two reads of the property in seconds. Between reads, the last value is published again.
+         * Useful for values that rarely change, or are expensive to read (such as values read over CAN). Defaults to {@code 0}, which reads the property every update.
+         */
+        double period() default 0;
+        /**
+         * Whether a new value should only be published when it differs from the last published value by more than {@link #epsilon() epsilon}.
+         * Defaults to {@code false}.
+         */
+        boolean onChange() default false;
+        /**
+         * The amount a numeric property must change by before a new value is published, only used if {@link #onChange() onChange} is {@code true}.
+         * Defaults to {@code 0}, which publishes any change.
+         */
+        double epsilon() default 0;
+        /**
+         * How important it is that the property is read every loop, used by the {@link TelemetryScheduler} to decide which properties to skip when over budget.
+         * Defaults to {@link TelemetryPriority#NORMAL NORMAL}.
+         */
+        TelemetryPriority priority() default TelemetryPriority.NORMAL;
+    }
+
+    /**
+     * Annotation used to mark methods (with no parameters) and fields that contain another AnnotatedSendable, whose properties are added to this sendable with their keys
+     * prefixed by the given key and a {@code /}. For example, a property with the key {@code "Velocity"} of a sendable nested with the key {@code "Motor"} is added as {@code "Motor/Velocity"}.
+     * Nested sendables are found once, when this sendable is built, and can be nested themselves. {@code null} values are skipped.
+     * Nothing is nested by default, to nest a child of an existing class (such as the motor of a subsystem), override its getter and annotate the override.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.FIELD})
+    @interface Nested {
+        String key();
+    }
+
+    /**
+     * Annotation used to publish every primitive property of a class as one struct topic with the given key,
+     * instead of one topic per property. Every value in the struct is read in the same update, and sent in a single message.
+     * Immutable primitive properties are only published as part of the struct, while mutable ones also keep their own topic so they can still be set from the dashboard.
+     * Either way, each property is only read once per update.
+     * Non-primitive properties are published as usual. This only has an effect when the sendable is published to NetworkTables.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Inherited
+    @interface Packed {
+        String key() default "Packed";
     }
 
+    /**
+     * Called before the first property of this sendable is set from the dashboard in an update.
+     * Together with {@link #endPropertyChanges()}, this lets implementations apply several changes at once, rather than one at a time.
+     */
+    default void beginPropertyChanges() {}
+
+    /**
+     * Called once every property of this sendable that was set from the dashboard in an update has been set.
+     * Only called if {@link #beginPropertyChanges()} was called first.
+     */
+    default void endPropertyChanges() {}
+
     @Override
     default void initSendable(SendableBuilder builder) {
-        Map<String, Property> map = new HashMap<>();
-
-        //-------------------METHOD MAPPING-------------------
-        Method[] methods = getClass().getMethods();
-        //stream silliness
-        Method[] getters = Arrays.stream(methods)
-                .filter((m)->m.isAnnotationPresent(Getter.class))
-                .filter((m)->m.getParameterCount()==0)
-                .filter((m)->m.getReturnType()!=Void.class)
-                .toArray(Method[]::new);
-        Method[] setters = Arrays.stream(methods)
-                .filter((m)->m.isAnnotationPresent(Setter.class))
-                .filter((m)->m.getParameterCount()==1)
-                .toArray(Method[]::new);
-        //verify and map all getters and setters
-        for (Method getter : getters) {
-            String key = getter.getAnnotation(Getter.class).key();
-            if (map.containsKey(key)) throw new RuntimeException("Cannot have multiple getters of the same value");
-            map.put(key,new Property(new Property.Callable(getter,this),getter.getReturnType()));
+        Map<String, Property> map = PropertySchema.of(getClass()).bind(this);
+        //done before packing removes any properties, so every property is unscheduled when the builder is closed
+        for (Property property : map.values()) {
+            property.unscheduleWith(builder);
         }
-        for (Method setter : setters) {
-            String key = setter.getAnnotation(Setter.class).key();
-            if (!map.containsKey(key)) throw new RuntimeException("All keys must have corresponding getters");
-            if (!map.get(key).getType().equals(setter.getParameterTypes()[0])) throw new RuntimeException("Keys cannot have getters and setters for different value types");
-            map.get(key).setSetter(new Property.Callable(setter,this));
+        Packed packed = getClass().getAnnotation(Packed.class);
+        if (packed != null && builder instanceof NTSendableBuilder ntBuilder) {
+            PackedStruct.publish(ntBuilder, packed.key(), this, map);
         }
-        //-------------------FIELD MAPPING-------------------
-        Field[] fields = Arrays.stream(getClass().getDeclaredFields())
-                .filter((f)->f.isAnnotationPresent(Variable.class))
-                .toArray(Field[]::new);
-        for (Field f : fields) {
-            Variable annot = f.getAnnotation(Variable.class);
-            f.setAccessible(true);
-            map.put(annot.key(),
-                    new Property(
-                            new Property.Callable(f,this,true),
-                            annot.mutable() && !Modifier.isFinal(f.getModifiers()) ? new Property.Callable(f,this,false) : null,
-                            f.getType()
-                    )
-            );
+        List<ChangeBatch> batches = ChangeBatch.wrapAll(map.values(), builder instanceof NTSendableBuilder);
+        //setters are called before the update table callbacks, so this ends the batches once every property has been set
+        if (builder instanceof NTSendableBuilder ntBuilder && !batches.isEmpty()) {
+            ntBuilder.setUpdateTable(() -> {
+                for (ChangeBatch batch : batches) batch.end();
+            });
         }
         //FINALLY build everything
         for (Map.Entry<String,Property> entry : map.entrySet()) {
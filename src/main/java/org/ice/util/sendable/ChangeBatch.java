@@ -0,0 +1,66 @@
+package org.ice.util.sendable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups every property of an {@link AnnotatedSendable} that is set in the same update (including properties of {@link AnnotatedSendable.Nested nested} sendables, which have their own batch),
+ * by calling {@link AnnotatedSendable#beginPropertyChanges()} before the first one, and {@link AnnotatedSendable#endPropertyChanges()} once the update is done.
+ * This class was purely made for internal use in {@link AnnotatedSendable}, and is therefore package-private.
+ */
+final class ChangeBatch {
+
+    private final AnnotatedSendable sendable;
+
+    private boolean open = false;
+
+    ChangeBatch(AnnotatedSendable sendable) {
+        this.sendable = sendable;
+    }
+
+    /**
+     * Starts a batch if one is not already open. Called before every setter.
+     */
+    void begin() {
+        if (open) return;
+        open = true;
+        sendable.beginPropertyChanges();
+    }
+
+    /**
+     * Ends the current batch, if one is open. Called once every property has been updated.
+     */
+    void end() {
+        if (!open) return;
+        open = false;
+        sendable.endPropertyChanges();
+    }
+
+    /**
+     * Wraps the setter of every given property so it is part of the batch of the sendable it belongs to.
+     * @param properties the properties to wrap
+     * @param deferred whether {@link #end()} is called separately once per update, if it is not, every set is its own batch
+     * @return the batch of every sendable that had a property wrapped
+     */
+    static List<ChangeBatch> wrapAll(Collection<Property> properties, boolean deferred) {
+        Map<Object, ChangeBatch> batches = new IdentityHashMap<>();
+        for (Property property : properties) {
+            if (property.isMutable() && property.getOwner() instanceof AnnotatedSendable owner) {
+                batches.computeIfAbsent(owner, (o) -> new ChangeBatch(owner)).wrap(property, deferred);
+            }
+        }
+        return new ArrayList<>(batches.values());
+    }
+
+    /**
+     * Wraps the setter of the given property so it is part of this batch.
+     * @param property the property to wrap
+     * @param deferred whether {@link #end()} is called separately once per update, if it is not, every set is its own batch
+     */
+    void wrap(Property property, boolean deferred) {
+        if (property.isMutable()) property.onSet(this::begin, deferred ? null : this::end);
+    }
+}
@@ -0,0 +1,147 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * <p>
+ * Records the properties of {@link AnnotatedSendable AnnotatedSendables} directly into a {@link DataLog}, without going through NetworkTables.
+ * Every property gets its own typed log entry when its sendable is added, and every call to {@link #record()} appends the value of every property with the same timestamp.
+ * </p>
+ * Properties are read independently of NetworkTables, so they are recorded every loop even if their {@link PropertyOptions options}, the {@link SubscriberGate},
+ * or the {@link TelemetryScheduler} stop them from being published. Note that this means each recorded property is read once for the log, and once more if it is also published.
+ * Non-primitive properties are not recorded in the loops their getter returns {@code null}.
+ * <pre>
+ *{@code
+ * DataLogRecorder recorder = new DataLogRecorder(DataLogManager.getLog());
+ * recorder.add("Drive", driveTrain);
+ *
+ * @Override
+ * public void robotPeriodic() {
+ *     CommandScheduler.getInstance().run();
+ *     recorder.record();
+ * }
+ *}
+ *</pre>
+ */
+public final class DataLogRecorder implements AutoCloseable {
+
+    private final DataLog log;
+    private final List<Channel> channels = new ArrayList<>();
+    private final List<DataLogEntry> entries = new ArrayList<>();
+
+    /**
+     * Creates a recorder that records to the given log.
+     * @param log the log to record to, such as {@code DataLogManager.getLog()}
+     */
+    public DataLogRecorder(DataLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Adds every property of the given sendable, which will be recorded in entries named {@code prefix/key}.
+     * @param prefix the prefix of the entry names, such as {@code "Drive"}
+     * @param sendable the sendable to record
+     */
+    public void add(String prefix, AnnotatedSendable sendable) {
+        for (Map.Entry<String, Property> entry : PropertySchema.of(sendable.getClass()).bindDirect(sendable).entrySet()) {
+            Channel channel = channel(prefix + "/" + entry.getKey(), entry.getValue());
+            if (channel != null) channels.add(channel);
+        }
+    }
+
+    private Channel channel(String name, Property property) {
+        Class<?> type = property.getType();
+        if (type.equals(double.class)) {
+            DoubleLogEntry entry = entry(new DoubleLogEntry(log, name));
+            return (time) -> entry.append(property.getDouble(), time);
+        } else if (type.equals(float.class)) {
+            FloatLogEntry entry = entry(new FloatLogEntry(log, name));
+            return (time) -> entry.append(property.getFloat(), time);
+        } else if (type.equals(long.class)) {
+            IntegerLogEntry entry = entry(new IntegerLogEntry(log, name));
+            return (time) -> entry.append(property.getLong(), time);
+        } else if (type.equals(boolean.class)) {
+            BooleanLogEntry entry = entry(new BooleanLogEntry(log, name));
+            return (time) -> entry.append(property.getBoolean(), time);
+        } else if (type.equals(String.class)) {
+            StringLogEntry entry = entry(new StringLogEntry(log, name));
+            return ofObject(property, (String value, long time) -> entry.append(value, time));
+        } else if (type.equals(int[].class)) {
+            IntegerArrayLogEntry entry = entry(new IntegerArrayLogEntry(log, name));
+            return ofObject(property, (int[] value, long time) -> entry.append(property.widen(value), time));
+        } else if (type.equals(long[].class)) {
+            IntegerArrayLogEntry entry = entry(new IntegerArrayLogEntry(log, name));
+            return ofObject(property, (long[] value, long time) -> entry.append(value, time));
+        } else if (type.equals(double[].class)) {
+            DoubleArrayLogEntry entry = entry(new DoubleArrayLogEntry(log, name));
+            return ofObject(property, (double[] value, long time) -> entry.append(value, time));
+        } else if (type.equals(float[].class)) {
+            FloatArrayLogEntry entry = entry(new FloatArrayLogEntry(log, name));
+            return ofObject(property, (float[] value, long time) -> entry.append(value, time));
+        } else if (type.equals(boolean[].class)) {
+            BooleanArrayLogEntry entry = entry(new BooleanArrayLogEntry(log, name));
+            return ofObject(property, (boolean[] value, long time) -> entry.append(value, time));
+        } else if (type.equals(String[].class)) {
+            StringArrayLogEntry entry = entry(new StringArrayLogEntry(log, name));
+            return ofObject(property, (String[] value, long time) -> entry.append(value, time));
+        }
+        //closeables have no value to record
+        return null;
+    }
+
+    /**
+     * Creates a channel for a non-primitive property, which skips the property whenever its getter returns {@code null}, since log entries cannot record {@code null} values.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Channel ofObject(Property property, ObjLongConsumer<T> append) {
+        return (time) -> {
+            T value = (T) property.getObject();
+            if (value != null) append.accept(value, time);
+        };
+    }
+
+    private <E extends DataLogEntry> E entry(E entry) {
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Records the value of every property, using the current time as the timestamp. This should be called once per loop.
+     */
+    public void record() {
+        record(WPIUtilJNI.now());
+    }
+
+    /**
+     * Records the value of every property with the given timestamp.
+     * @param timestamp the timestamp in microseconds, in the same time base as {@link WPIUtilJNI#now()}
+     */
+    public void record(long timestamp) {
+        for (int i = 0; i < channels.size(); i++) {
+            channels.get(i).append(timestamp);
+        }
+    }
+
+    /**
+     * Finishes every entry of this recorder.
+     */
+    @Override
+    public void close() {
+        for (DataLogEntry entry : entries) {
+            entry.finish();
+        }
+        channels.clear();
+        entries.clear();
+    }
+
+    @FunctionalInterface
+    private interface Channel {
+        void append(long timestamp);
+    }
+}
@@ -0,0 +1,22 @@
+package org.ice.util.sendable;
+
+/**
+ * Interface implemented by the classes that the {@code org.ice.util.sendable.processor.SendableSchemaProcessor} annotation processor generates for {@link AnnotatedSendable} types.
+ * A generated schema describes every {@link AnnotatedSendable.Getter Getter}, {@link AnnotatedSendable.Setter Setter}, and {@link AnnotatedSendable.Variable Variable} of its type using plain method calls,
+ * which lets {@link AnnotatedSendable#initSendable(edu.wpi.first.util.sendable.SendableBuilder)} skip reflection entirely.
+ * Generated schemas are named after the type they describe with the {@value #SUFFIX} suffix, and are found automatically at runtime. Types without one fall back to reflection.
+ * @param <T> the type described by the schema
+ */
+public interface GeneratedSchema<T> {
+
+    /**
+     * Suffix added to the binary name of a type to get the name of its generated schema.
+     */
+    String SUFFIX = "_SendableSchema";
+
+    /**
+     * Adds every property of the described type to the given schema builder.
+     * @param schema the builder to add the properties to
+     */
+    void describe(SchemaBuilder<T> schema);
+}
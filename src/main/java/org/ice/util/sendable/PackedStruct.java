@@ -0,0 +1,135 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.networktables.NTSendableBuilder;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.RawPublisher;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes the primitive properties of a {@link AnnotatedSendable.Packed Packed} {@link AnnotatedSendable} as one value, using the NetworkTables struct format.
+ * Packed values can only be published, so rather than being a {@link edu.wpi.first.util.struct.Struct Struct}, this only writes the struct's bytes and schema.
+ * Every property is read once per update: immutable properties are read by the struct, and mutable properties are read by their own topic, with the struct reusing the value that was read.
+ * This class was purely made for internal use in {@link AnnotatedSendable}, and is therefore package-private.
+ */
+final class PackedStruct {
+
+    private final Property[] fields;
+    private final Class<?>[] types;
+    /**
+     * Latest value of every field, doubles and floats are stored as their raw bits, and booleans as {@code 0} or {@code 1}.
+     */
+    private final long[] values;
+    /**
+     * Fields that are only published as part of the struct, and are therefore read by it.
+     */
+    private final Property[] owned;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final RawPublisher publisher;
+
+    private PackedStruct(List<Property> fields, List<Property> owned, int size, RawPublisher publisher) {
+        this.fields = fields.toArray(Property[]::new);
+        this.owned = owned.toArray(Property[]::new);
+        types = new Class<?>[this.fields.length];
+        values = new long[this.fields.length];
+        for (int i = 0; i < this.fields.length; i++) {
+            types[i] = this.fields[i].getType();
+            this.fields[i].capture(values, i);
+        }
+        bytes = new byte[size];
+        //structs are always little endian
+        buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        this.publisher = publisher;
+    }
+
+    /**
+     * Publishes every primitive property of the given sendable as a single struct topic with the given key, which is updated along with the rest of the builder.
+     * Immutable primitive properties are removed from the given properties, mutable ones are left so they can still be set from the dashboard.
+     * @param builder the builder of the sendable
+     * @param key the key of the struct topic
+     * @param sendable the sendable to publish
+     * @param properties the properties of the sendable by key
+     */
+    static void publish(NTSendableBuilder builder, String key, AnnotatedSendable sendable, Map<String, Property> properties) {
+        List<Property> fields = new ArrayList<>();
+        List<Property> owned = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        StringBuilder schema = new StringBuilder();
+        int size = 0;
+        for (Iterator<Map.Entry<String, Property>> it = properties.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Property> entry = it.next();
+            Property property = entry.getValue();
+            String fieldType;
+            if (property.getType().equals(double.class)) {
+                fieldType = "double";
+                size += 8;
+            } else if (property.getType().equals(float.class)) {
+                fieldType = "float";
+                size += 4;
+            } else if (property.getType().equals(long.class)) {
+                fieldType = "int64";
+                size += 8;
+            } else if (property.getType().equals(boolean.class)) {
+                fieldType = "bool";
+                size += 1;
+            } else {
+                continue;
+            }
+            schema.append(fieldType).append(' ').append(fieldName(entry.getKey(), names)).append(';');
+            fields.add(property);
+            if (!property.isMutable()) {
+                owned.add(property.prepare());
+                it.remove();
+            }
+        }
+        if (fields.isEmpty()) return;
+        String typeName = "struct:" + sendable.getClass().getName().replaceAll("[^A-Za-z0-9_]", "_");
+        NetworkTable table = builder.getTable();
+        table.getInstance().addSchema(typeName, "structschema", schema.toString());
+        RawPublisher publisher = table.getRawTopic(key).publish(typeName);
+        builder.addCloseable(publisher);
+        PackedStruct struct = new PackedStruct(fields, owned, size, publisher);
+        //update table callbacks run after every property was read, so the values of mutable properties are already up to date
+        builder.setUpdateTable(struct::update);
+    }
+
+    /**
+     * Converts a property key into a valid, unique struct field name, by replacing every character that is not allowed with an underscore.
+     */
+    private static String fieldName(String key, Set<String> names) {
+        String name = key.replaceAll("[^A-Za-z0-9_]", "_");
+        if (name.isEmpty() || Character.isDigit(name.charAt(0))) name = "_" + name;
+        String unique = name;
+        for (int i = 2; !names.add(unique); i++) unique = name + "_" + i;
+        return unique;
+    }
+
+    /**
+     * Reads the fields that are only published as part of the struct, then packs and publishes every field.
+     */
+    private void update() {
+        for (Property field : owned) {
+            Class<?> type = field.getType();
+            if (type.equals(double.class)) field.getDouble();
+            else if (type.equals(float.class)) field.getFloat();
+            else if (type.equals(long.class)) field.getLong();
+            else field.getBoolean();
+        }
+        buffer.clear();
+        for (int i = 0; i < fields.length; i++) {
+            Class<?> type = types[i];
+            if (type.equals(float.class)) buffer.putInt((int) values[i]);
+            else if (type.equals(boolean.class)) buffer.put((byte) values[i]);
+            else buffer.putLong(values[i]);
+        }
+        publisher.set(bytes);
+    }
+}
@@ -1,123 +1,513 @@
 package org.ice.util.sendable;
 
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.function.FloatConsumer;
+import edu.wpi.first.util.function.FloatSupplier;
 import edu.wpi.first.util.sendable.SendableBuilder;
-import edu.wpi.first.wpilibj.DriverStation;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.function.*;
 
 /**
  * Class for storing information about a property that can be added to a Sendable.
+ * Primitive properties ({@code long}, {@code double}, {@code float}, and {@code boolean}) are stored using primitive specialized getters and setters,
+ * which are passed directly to the matching {@link SendableBuilder} method so reading or writing them never boxes the value.
+ * {@code int} properties are stored as {@code long} properties, and {@code int[]} properties are widened into a reused {@code long[]} buffer.
  * This class was purely made for internal use in {@link AnnotatedSendable}, and is therefore package-private.
  */
 class Property {
 
-    private Callable getter, setter;
+    private final Class<?> type;
 
-    private Class<?> type;
+    private DoubleSupplier doubleGetter;
+    private DoubleConsumer doubleSetter;
 
-    public Property(Callable getter, Callable setter, Class<?> type) {
-        this.getter = getter;
-        this.setter = setter;
+    private LongSupplier longGetter;
+    private LongConsumer longSetter;
+
+    private FloatSupplier floatGetter;
+    private FloatConsumer floatSetter;
+
+    private BooleanSupplier booleanGetter;
+    private BooleanConsumer booleanSetter;
+
+    private Supplier<Object> getter;
+    private Consumer<Object> setter;
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * Buffer that {@code int[]} values are widened into before being sent, reused every update so int array properties don't allocate.
+     */
+    private long[] scratch = EMPTY;
+
+    /**
+     * The instance this property belongs to, which may be a {@link AnnotatedSendable.Nested nested} sendable rather than the sendable being built.
+     */
+    private Object owner;
+
+    private PropertyOptions options = PropertyOptions.DEFAULT;
+
+    /**
+     * Whether the getter should currently be called, or {@code null} if it should always be called. See {@link SubscriberGate}.
+     */
+    private BooleanSupplier active;
+
+    /**
+     * Slot used to decide whether the getter should be called this loop, or {@code null} if the property is not scheduled. See {@link TelemetryScheduler}.
+     */
+    private TelemetryScheduler.Slot slot;
+
+    /**
+     * Cached values used when the getter is not called every update, see {@link #sample()}.
+     */
+    private boolean wrapped;
+    private boolean sampled;
+    private long lastSampleNanos;
+    private double cachedDouble;
+    private long cachedLong;
+    private boolean cachedBoolean;
+    private Object cachedObject;
+
+    private Property(Class<?> type) {
         this.type = type;
     }
 
-    public Property(Callable getter, Class<?> type) {
-        this(getter,null,type);
+    public static Property ofDouble(DoubleSupplier getter, DoubleConsumer setter) {
+        Property property = new Property(double.class);
+        property.doubleGetter = getter;
+        property.doubleSetter = setter;
+        return property;
+    }
+
+    public static Property ofLong(LongSupplier getter, LongConsumer setter) {
+        Property property = new Property(long.class);
+        property.longGetter = getter;
+        property.longSetter = setter;
+        return property;
+    }
+
+    public static Property ofFloat(FloatSupplier getter, FloatConsumer setter) {
+        Property property = new Property(float.class);
+        property.floatGetter = getter;
+        property.floatSetter = setter;
+        return property;
+    }
+
+    public static Property ofBoolean(BooleanSupplier getter, BooleanConsumer setter) {
+        Property property = new Property(boolean.class);
+        property.booleanGetter = getter;
+        property.booleanSetter = setter;
+        return property;
     }
 
-    public Callable getGetter() {
-        return getter;
+    /**
+     * Creates a property of a non-primitive type.
+     * @param type the type of the property
+     * @param getter the getter of the property
+     * @param setter the setter of the property, or {@code null} if the property is immutable
+     * @return the new property
+     */
+    public static Property ofObject(Class<?> type, Supplier<Object> getter, Consumer<Object> setter) {
+        Property property = new Property(type);
+        property.getter = getter;
+        property.setter = setter;
+        return property;
     }
 
-    public Callable getSetter() {
-        return setter;
+    Property ownedBy(Object owner) {
+        this.owner = owner;
+        return this;
     }
 
-    public void setSetter(Callable setter) {
-        this.setter = setter;
+    Object getOwner() {
+        return owner;
     }
 
     public Class<?> getType() {
         return type;
     }
 
+    public boolean isMutable() {
+        return doubleSetter != null || longSetter != null || floatSetter != null || booleanSetter != null || setter != null;
+    }
+
+    /**
+     * Sets the options of this property, which are applied when the property is added to a builder.
+     * @param options the options of the property
+     * @return itself
+     */
+    public Property withOptions(PropertyOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Wraps the getter of this property so every call is timed and recorded in the given statistics. See {@link PropertyProfiler}.
+     * This must be called before the property is read in any other way, so only calls to the original getter are measured.
+     * @param stats the statistics to record calls in
+     * @return itself
+     */
+    Property profile(PropertyProfiler.Stats stats) {
+        wrapGetter(Hook.timing(stats::record));
+        return this;
+    }
+
+    /**
+     * Schedules this property using the given slot. The getter is wrapped so every call is timed and recorded in the slot,
+     * and is only called in the loops the slot is {@link TelemetryScheduler.Slot#isAllowed() allowed} in.
+     * @param slot the slot of the property
+     * @return itself
+     */
+    Property schedule(TelemetryScheduler.Slot slot) {
+        this.slot = slot;
+        wrapGetter(Hook.timing(slot::record));
+        return this;
+    }
+
+    /**
+     * Removes this property from the {@link TelemetryScheduler} once the given builder is closed, such as when its sendable is rebuilt or replaced on the dashboard.
+     * @param builder the builder the property belongs to
+     */
+    void unscheduleWith(SendableBuilder builder) {
+        if (slot != null) builder.addCloseable(slot);
+    }
+
+    /**
+     * Removes this property from the {@link TelemetryScheduler}, if it is scheduled.
+     */
+    void unschedule() {
+        if (slot != null) slot.close();
+    }
+
+    /**
+     * Wraps the getter of this property so the given hook is run around every call.
+     */
+    private void wrapGetter(Hook hook) {
+        if (doubleGetter != null) {
+            DoubleSupplier get = doubleGetter;
+            doubleGetter = () -> {
+                long token = hook.before();
+                double value = get.getAsDouble();
+                hook.after(token);
+                return value;
+            };
+        } else if (floatGetter != null) {
+            FloatSupplier get = floatGetter;
+            floatGetter = () -> {
+                long token = hook.before();
+                float value = get.getAsFloat();
+                hook.after(token);
+                return value;
+            };
+        } else if (longGetter != null) {
+            LongSupplier get = longGetter;
+            longGetter = () -> {
+                long token = hook.before();
+                long value = get.getAsLong();
+                hook.after(token);
+                return value;
+            };
+        } else if (booleanGetter != null) {
+            BooleanSupplier get = booleanGetter;
+            booleanGetter = () -> {
+                long token = hook.before();
+                boolean value = get.getAsBoolean();
+                hook.after(token);
+                return value;
+            };
+        } else if (getter != null) {
+            Supplier<Object> get = getter;
+            getter = () -> {
+                long token = hook.before();
+                Object value = get.get();
+                hook.after(token);
+                return value;
+            };
+        }
+    }
+
+    /**
+     * Wraps the setter of this property so the given hook is run around every call.
+     */
+    private void wrapSetter(Hook hook) {
+        if (doubleSetter != null) {
+            DoubleConsumer set = doubleSetter;
+            doubleSetter = (value) -> {
+                long token = hook.before();
+                set.accept(value);
+                hook.after(token);
+            };
+        }
+        if (floatSetter != null) {
+            FloatConsumer set = floatSetter;
+            floatSetter = (value) -> {
+                long token = hook.before();
+                set.accept(value);
+                hook.after(token);
+            };
+        }
+        if (longSetter != null) {
+            LongConsumer set = longSetter;
+            longSetter = (value) -> {
+                long token = hook.before();
+                set.accept(value);
+                hook.after(token);
+            };
+        }
+        if (booleanSetter != null) {
+            BooleanConsumer set = booleanSetter;
+            booleanSetter = (value) -> {
+                long token = hook.before();
+                set.accept(value);
+                hook.after(token);
+            };
+        }
+        if (setter != null) {
+            Consumer<Object> set = setter;
+            setter = (value) -> {
+                long token = hook.before();
+                set.accept(value);
+                hook.after(token);
+            };
+        }
+    }
+
+    /**
+     * Wraps the getter of this property so the original getter is only called once every {@link PropertyOptions#period() period}, while the property is {@link #active}, and in the loops it is scheduled in.
+     * If {@link PropertyOptions#onChange() onChange} is set, the last value is returned until the value changes by more than {@link PropertyOptions#epsilon() epsilon}.
+     * Returning the same value lets NetworkTables skip sending it. Setting the property clears the cached value, so the new value is read on the next update.
+     * The getter is only wrapped once, even if the property is read in more than one way.
+     */
+    private void sample() {
+        if (wrapped) return;
+        wrapped = true;
+        long periodNanos = (long) (options.period() * 1e9);
+        boolean onChange = options.onChange();
+        double epsilon = options.epsilon();
+        if (doubleGetter != null) {
+            DoubleSupplier get = doubleGetter;
+            doubleGetter = () -> {
+                if (!due(periodNanos)) return cachedDouble;
+                double value = get.getAsDouble();
+                //written so NaN always counts as a change
+                if (!sampled || !onChange || !(Math.abs(value - cachedDouble) <= epsilon)) cachedDouble = value;
+                sampled = true;
+                return cachedDouble;
+            };
+        } else if (floatGetter != null) {
+            FloatSupplier get = floatGetter;
+            floatGetter = () -> {
+                if (!due(periodNanos)) return (float) cachedDouble;
+                float value = get.getAsFloat();
+                if (!sampled || !onChange || !(Math.abs(value - cachedDouble) <= epsilon)) cachedDouble = value;
+                sampled = true;
+                return (float) cachedDouble;
+            };
+        } else if (longGetter != null) {
+            LongSupplier get = longGetter;
+            longGetter = () -> {
+                if (!due(periodNanos)) return cachedLong;
+                long value = get.getAsLong();
+                if (!sampled || !onChange || Math.abs((double) value - cachedLong) > epsilon) cachedLong = value;
+                sampled = true;
+                return cachedLong;
+            };
+        } else if (booleanGetter != null) {
+            BooleanSupplier get = booleanGetter;
+            booleanGetter = () -> {
+                if (!due(periodNanos)) return cachedBoolean;
+                cachedBoolean = get.getAsBoolean();
+                sampled = true;
+                return cachedBoolean;
+            };
+        } else if (getter != null) {
+            //non-numeric values are only sampled less often, NetworkTables already skips sending values that are equal
+            Supplier<Object> get = getter;
+            getter = () -> {
+                if (!due(periodNanos)) return cachedObject;
+                cachedObject = get.get();
+                sampled = true;
+                return cachedObject;
+            };
+        }
+        wrapSetter(Hook.around(null, () -> sampled = false));
+    }
+
+    /**
+     * @return whether the getter should be called, which is the case if there is no cached value, or the property is scheduled, active, and the last sample is older than the given period
+     */
+    private boolean due(long periodNanos) {
+        if (sampled && slot != null && !slot.isAllowed()) return false;
+        if (sampled && active != null && !active.getAsBoolean()) return false;
+        long now = System.nanoTime();
+        if (sampled && now - lastSampleNanos < periodNanos) return false;
+        lastSampleNanos = now;
+        return true;
+    }
+
+    /**
+     * Wraps the setter of this property so the given actions are run around every set.
+     * @param before action run before the value is set
+     * @param after action run after the value is set, may be {@code null}
+     * @return itself
+     */
+    Property onSet(Runnable before, Runnable after) {
+        wrapSetter(Hook.around(before, after));
+        return this;
+    }
+
+    /**
+     * Wraps the getter of this primitive property so every value it returns is also written to the given array, so the value can be used again without calling the getter.
+     * Doubles and floats are written as their raw bits, and booleans as {@code 0} or {@code 1}. See {@link PackedStruct}.
+     * @param values the array to write the values to
+     * @param index the index in the array to write the values at
+     * @return itself
+     */
+    Property capture(long[] values, int index) {
+        if (doubleGetter != null) {
+            DoubleSupplier get = doubleGetter;
+            doubleGetter = () -> {
+                double value = get.getAsDouble();
+                values[index] = Double.doubleToRawLongBits(value);
+                return value;
+            };
+        } else if (floatGetter != null) {
+            FloatSupplier get = floatGetter;
+            floatGetter = () -> {
+                float value = get.getAsFloat();
+                values[index] = Float.floatToRawIntBits(value);
+                return value;
+            };
+        } else if (longGetter != null) {
+            LongSupplier get = longGetter;
+            longGetter = () -> {
+                long value = get.getAsLong();
+                values[index] = value;
+                return value;
+            };
+        } else if (booleanGetter != null) {
+            BooleanSupplier get = booleanGetter;
+            booleanGetter = () -> {
+                boolean value = get.getAsBoolean();
+                values[index] = value ? 1 : 0;
+                return value;
+            };
+        }
+        return this;
+    }
+
+    /**
+     * Applies the options of this property without adding it to a builder, for properties that are read directly using {@link #getDouble()} and friends.
+     * @return itself
+     */
+    Property prepare() {
+        if (slot != null || !options.isDefault()) sample();
+        return this;
+    }
+
+    double getDouble() {
+        return doubleGetter.getAsDouble();
+    }
+
+    long getLong() {
+        return longGetter.getAsLong();
+    }
+
+    float getFloat() {
+        return floatGetter.getAsFloat();
+    }
+
+    boolean getBoolean() {
+        return booleanGetter.getAsBoolean();
+    }
+
+    /**
+     * @return the value of a non-primitive property, {@code int[]} values are returned as-is
+     */
+    Object getObject() {
+        return getter.get();
+    }
+
+    void setDouble(double value) {
+        doubleSetter.accept(value);
+    }
+
+    void setLong(long value) {
+        longSetter.accept(value);
+    }
+
+    void setFloat(float value) {
+        floatSetter.accept(value);
+    }
+
+    void setBoolean(boolean value) {
+        booleanSetter.accept(value);
+    }
+
+    /**
+     * Sets the value of a non-primitive property, {@code int[]} properties take a {@code long[]} like they do on the dashboard.
+     */
+    void setObject(Object value) {
+        setter.accept(type.equals(int[].class) ? narrow((long[]) value) : value);
+    }
+
     public void addToBuilder(SendableBuilder builder,String key) {
-        //AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA
-        if (type.equals(int.class) || type.equals(long.class)) {
-            builder.addIntegerProperty(
-                    key,
-                    ()->(long) getter.call(null),
-                    setter == null ? null : setter::call
-            );
+        //closeables are only read once, so there is nothing to skip
+        if (!type.isAssignableFrom(AutoCloseable.class)) active = SubscriberGate.of(builder, key);
+        if (active != null || slot != null || !options.isDefault()) sample();
+        //AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA
+        if (type.equals(long.class)) {
+            builder.addIntegerProperty(key, longGetter, longSetter);
         } else if (type.equals(double.class)) {
-            builder.addDoubleProperty(
-                    key,
-                    ()->(double) getter.call(null),
-                    setter == null ? null : setter::call
-            );
+            builder.addDoubleProperty(key, doubleGetter, doubleSetter);
         } else if (type.equals(float.class)) {
-            builder.addFloatProperty(
-                    key,
-                    ()->(float) getter.call(null),
-                    setter == null ? null : setter::call
-            );
+            builder.addFloatProperty(key, floatGetter, floatSetter);
         } else if (type.equals(boolean.class)) {
-            builder.addBooleanProperty(
-                    key,
-                    ()->(boolean) getter.call(null),
-                    setter == null ? null : setter::call
-            );
+            builder.addBooleanProperty(key, booleanGetter, booleanSetter);
         } else if (type.equals(String.class)) {
             builder.addStringProperty(
                     key,
-                    ()->(String) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(String) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.equals(int[].class)) {
-            //print trace to make it more noticeable
-            DriverStation.reportWarning("Adding an int[] property through annotations requires converting and is therefore more expensive, consider using long[] instead.",true);
             builder.addIntegerArrayProperty(
                     key,
-                    //NOTE: This probably makes properties using int arrays MUCH more expensive, hence the warning I print to log ^
-                    ()->Arrays.stream((int[])getter.call(null)).asLongStream().toArray(),
-                    setter == null ? null : setter::call
+                    ()->widen((int[]) getter.get()),
+                    setter == null ? null : (value)->setter.accept(narrow(value))
             );
         } else if (type.equals(long[].class)) {
             builder.addIntegerArrayProperty(
                     key,
-                    ()->(long[]) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(long[]) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.equals(double[].class)) {
             builder.addDoubleArrayProperty(
                     key,
-                    ()->(double[]) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(double[]) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.equals(float[].class)) {
             builder.addFloatArrayProperty(
                     key,
-                    ()->(float[]) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(float[]) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.equals(boolean[].class)) {
             builder.addBooleanArrayProperty(
                     key,
-                    ()->(boolean[]) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(boolean[]) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.equals(String[].class)) {
             builder.addStringArrayProperty(
                     key,
-                    ()->(String[]) getter.call(null),
-                    setter == null ? null : setter::call
+                    ()->(String[]) getter.get(),
+                    setter == null ? null : setter::accept
             );
         } else if (type.isAssignableFrom(AutoCloseable.class)) {
-            builder.addCloseable((AutoCloseable) getter.call(null));
+            builder.addCloseable((AutoCloseable) getter.get());
         } else {
             throw new UnsupportedOperationException("A field or method annotated for sending has an invalid type (" + type.getSimpleName() + ")," +
                     " valid types are: int,long,float,double,boolean,String,int[],long[],float[],double[],boolean[],String[], and AutoCloseable");
@@ -125,41 +515,72 @@ class Property {
     }
 
     /**
-     * Class to ease interfacing with both Fields and Methods.
+     * Widens the given values into the {@link #scratch} buffer in place. The buffer is only reallocated when the length of the values changes.
+     * The returned array is only valid until the next call, which is fine for {@link SendableBuilder}, as it copies values as soon as they are returned.
+     * @param values the values to widen
+     * @return the scratch buffer, containing the widened values
      */
-    static class Callable {
+    long[] widen(int[] values) {
+        if (values == null) return EMPTY;
+        if (scratch.length != values.length) scratch = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            scratch[i] = values[i];
+        }
+        return scratch;
+    }
 
-        private Function<Object,Object> func;
+    private static int[] narrow(long[] values) {
+        int[] narrowed = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            narrowed[i] = (int) values[i];
+        }
+        return narrowed;
+    }
 
-        public Callable(Field field, Object parent, boolean getter) {
-            func = getter ? (param) -> {
-                try {
-                    return field.get(parent);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
+    /**
+     * Code run around every call of a wrapped getter or setter. The value returned by {@link #before()} is passed to {@link #after(long)}, such as the time the call started.
+     */
+    private interface Hook {
+
+        long before();
+
+        void after(long token);
+
+        /**
+         * @return a hook that measures how long every call takes, and passes the time to the given consumer in nanoseconds
+         */
+        static Hook timing(LongConsumer record) {
+            return new Hook() {
+                @Override
+                public long before() {
+                    return System.nanoTime();
                 }
-            } : (param) -> {
-                try {
-                    field.set(parent, param);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
+
+                @Override
+                public void after(long start) {
+                    record.accept(System.nanoTime() - start);
                 }
-                return null;
             };
         }
 
-        public Callable(Method m, Object parent) {
-            func = (params)-> {
-                try {
-                    return m.invoke(parent,params);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
+        /**
+         * @param before action run before every call, may be {@code null}
+         * @param after action run after every call, may be {@code null}
+         * @return a hook that runs the given actions
+         */
+        static Hook around(Runnable before, Runnable after) {
+            return new Hook() {
+                @Override
+                public long before() {
+                    if (before != null) before.run();
+                    return 0;
                 }
-            };
-        }
 
-        public Object call(Object param) {
-            return func.apply(param);
+                @Override
+                public void after(long token) {
+                    if (after != null) after.run();
+                }
+            };
         }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.ice.util.sendable;
+
+/**
+ * Options that control how often the value of a property is sampled and published.
+ * These are normally set using the {@link AnnotatedSendable.Getter#period() period}, {@link AnnotatedSendable.Getter#onChange() onChange},
+ * {@link AnnotatedSendable.Getter#epsilon() epsilon}, and {@link AnnotatedSendable.Getter#priority() priority} values of the {@link AnnotatedSendable.Getter Getter} and {@link AnnotatedSendable.Variable Variable} annotations.
+ * @param period the minimum time between two calls of the getter in seconds, or {@code 0} to call the getter every update
+ * @param onChange whether the published value should only change when the value of the property changes by more than {@code epsilon}
+ * @param epsilon the amount a numeric property must change by before a new value is published, only used if {@code onChange} is {@code true}
+ * @param priority the priority of the property, used by the {@link TelemetryScheduler}
+ */
+public record PropertyOptions(double period, boolean onChange, double epsilon, TelemetryPriority priority) {
+
+    /**
+     * Options that sample and publish the property every update.
+     */
+    public static final PropertyOptions DEFAULT = new PropertyOptions(0, false, 0, TelemetryPriority.NORMAL);
+
+    public PropertyOptions {
+        if (!(period >= 0)) throw new IllegalArgumentException("Property period must be non-negative (" + period + ")");
+        if (!(epsilon >= 0)) throw new IllegalArgumentException("Property epsilon must be non-negative (" + epsilon + ")");
+        if (priority == null) throw new IllegalArgumentException("Property priority cannot be null");
+    }
+
+    /**
+     * @return whether these options change how the property is sampled, if they don't the getter of the property can be used directly
+     */
+    public boolean isDefault() {
+        return period == 0 && !onChange;
+    }
+}
@@ -0,0 +1,153 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Measures how long the getter of every {@link AnnotatedSendable} property takes, to find the properties that are expensive to read (such as ones that read from CAN).
+ * For every key of every class, the number of calls, the total time, and the longest call are recorded. Instances of the same class share their statistics.
+ * Only calls to the getter itself are measured, so values returned from cache because of {@link PropertyOptions} or {@link SubscriberGate} do not count.
+ * </p>
+ * Profiling is disabled by default, and only affects sendables that are built after it is {@link #setEnabled(boolean) enabled}:
+ * <pre>
+ *{@code
+ * PropertyProfiler.setEnabled(true);
+ * SmartDashboard.putData("Drive", driveTrain);
+ * ...
+ * System.out.println(PropertyProfiler.report());
+ *}
+ *</pre>
+ */
+public final class PropertyProfiler {
+
+    private static volatile boolean enabled = false;
+
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+    private static final Map<String, DoubleArrayPublisher> PUBLISHERS = new ConcurrentHashMap<>();
+
+    private PropertyProfiler() {}
+
+    /**
+     * Sets whether property getters should be measured. Only affects sendables that are built after this is called.
+     * @param enabled whether property getters should be measured
+     */
+    public static void setEnabled(boolean enabled) {
+        PropertyProfiler.enabled = enabled;
+    }
+
+    /**
+     * @return whether property getters are measured
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param type the class the property belongs to
+     * @param key the key of the property
+     * @return the statistics of the given property, created if they don't exist yet
+     */
+    static Stats stats(Class<?> type, String key) {
+        //the full name is used, so classes with the same simple name (or anonymous classes) don't share statistics
+        return STATS.computeIfAbsent(type.getName() + "/" + key, Stats::new);
+    }
+
+    /**
+     * @return the statistics of every measured property, sorted from the highest to the lowest total time
+     */
+    public static List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>(STATS.values());
+        stats.sort(Comparator.comparingLong(Stats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * @return a table of every measured property, sorted from the highest to the lowest total time
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder(String.format("%-72s %10s %12s %12s %12s%n", "Property", "Calls", "Total (ms)", "Avg (us)", "Max (us)"));
+        for (Stats stats : getStats()) {
+            report.append(String.format("%-72s %10d %12.3f %12.3f %12.3f%n",
+                    stats.getName(), stats.getCount(), stats.getTotalNanos() / 1e6, stats.getAverageNanos() / 1e3, stats.getMaxNanos() / 1e3));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Resets the statistics of every property.
+     */
+    public static void reset() {
+        for (Stats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Publishes the statistics of every property to the given table, as {@code [calls, total ms, average us, max us]} arrays named after the class and key of each property.
+     * This allocates, so it should be called occasionally (such as when disabled) rather than every loop.
+     * @param table the table to publish to
+     */
+    public static void publish(NetworkTable table) {
+        for (Stats stats : STATS.values()) {
+            PUBLISHERS.computeIfAbsent(table.getPath() + "/" + stats.getName(), (name) -> table.getDoubleArrayTopic(stats.getName()).publish())
+                    .set(new double[] {stats.getCount(), stats.getTotalNanos() / 1e6, stats.getAverageNanos() / 1e3, stats.getMaxNanos() / 1e3});
+        }
+    }
+
+    /**
+     * Statistics of a single property. Statistics are updated on the thread that reads the property, so values read from other threads may be slightly out of date.
+     */
+    public static final class Stats {
+
+        private final String name;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+        }
+
+        private void reset() {
+            count = 0;
+            totalNanos = 0;
+            maxNanos = 0;
+        }
+
+        /**
+         * @return the class and key of the property, such as {@code "org.ice.util.motor.GenericTalon/Temperature"}
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getAverageNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+}
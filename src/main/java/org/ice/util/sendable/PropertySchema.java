@@ -0,0 +1,352 @@
+package org.ice.util.sendable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Set of properties that belong to a class, with getters and setters that are not bound to an instance.
+ * Schemas are found and validated once per class, and then {@link #bind(Object) bound} to each instance of that class.
+ * This class was purely made for internal use in {@link AnnotatedSendable}, and is therefore package-private.
+ */
+final class PropertySchema {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<PropertySchema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected PropertySchema computeValue(Class<?> type) {
+            PropertySchema generated = loadGenerated(type);
+            return generated != null ? generated : reflect(type);
+        }
+    };
+
+    private final Map<String, Descriptor> descriptors = new LinkedHashMap<>();
+
+    /**
+     * Functions that return the {@link AnnotatedSendable.Nested nested} sendables of an instance, by key.
+     */
+    private final Map<String, Function<Object, Object>> children = new LinkedHashMap<>();
+
+    /**
+     * Returns the schema of the given class. The schema generated at compile time is used if there is one, otherwise the class is scanned using reflection.
+     * Either way, this is only done the first time the schema of a class is requested.
+     * @param type the class to get the schema of
+     * @return the schema of the class
+     */
+    static PropertySchema of(Class<?> type) {
+        return SCHEMAS.get(type);
+    }
+
+    void add(String key, Class<?> type, PropertyOptions options, Function<Object, Property> binder) {
+        if (descriptors.containsKey(key) || children.containsKey(key)) throw new RuntimeException("Cannot have multiple getters of the same value");
+        descriptors.put(key, new Descriptor(type, options, binder));
+    }
+
+    void addNested(String key, Function<Object, Object> child) {
+        if (descriptors.containsKey(key) || children.containsKey(key)) throw new RuntimeException("Cannot have multiple getters of the same value");
+        children.put(key, child);
+    }
+
+    /**
+     * Creates the properties of the given instance, including the properties of its {@link AnnotatedSendable.Nested nested} sendables.
+     * @param instance the instance to bind the schema's getters and setters to
+     * @return map of every property of the instance by key
+     */
+    Map<String, Property> bind(Object instance) {
+        Map<String, Property> map = new LinkedHashMap<>();
+        bind(instance, "", map, true, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return map;
+    }
+
+    /**
+     * Creates the properties of the given instance, without applying their options, profiling, or scheduling, so every read calls the getter.
+     * @param instance the instance to bind the schema's getters and setters to
+     * @return map of every property of the instance by key, in the order they were found
+     */
+    Map<String, Property> bindDirect(Object instance) {
+        Map<String, Property> map = new LinkedHashMap<>();
+        bind(instance, "", map, false, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return map;
+    }
+
+    /**
+     * Binds the properties of the given instance, then the properties of its nested sendables with their key followed by a {@code /} added to the prefix.
+     * @param path the instances currently being bound, used to stop sendables from containing themselves
+     */
+    private void bind(Object instance, String prefix, Map<String, Property> map, boolean sampled, Set<Object> path) {
+        if (!path.add(instance)) throw new RuntimeException("Nested sendables cannot contain themselves");
+        for (Map.Entry<String, Descriptor> entry : descriptors.entrySet()) {
+            Descriptor descriptor = entry.getValue();
+            Property property = descriptor.binder().apply(instance).ownedBy(instance);
+            if (sampled) {
+                property.withOptions(descriptor.options());
+                if (PropertyProfiler.isEnabled()) property.profile(PropertyProfiler.stats(instance.getClass(), entry.getKey()));
+                //closeables are only read once, so there is nothing to schedule
+                if (TelemetryScheduler.isEnabled() && descriptor.options().priority() != TelemetryPriority.CRITICAL && !descriptor.type().isAssignableFrom(AutoCloseable.class)) {
+                    property.schedule(TelemetryScheduler.register(descriptor.options().priority()));
+                }
+            }
+            map.put(prefix + entry.getKey(), property);
+        }
+        for (Map.Entry<String, Function<Object, Object>> entry : children.entrySet()) {
+            Object child = entry.getValue().apply(instance);
+            if (child != null) of(child.getClass()).bind(child, prefix + entry.getKey() + "/", map, sampled, path);
+        }
+        path.remove(instance);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static PropertySchema loadGenerated(Class<?> type) {
+        Class<?> generatedClass;
+        try {
+            generatedClass = Class.forName(type.getName() + GeneratedSchema.SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!GeneratedSchema.class.isAssignableFrom(generatedClass)) return null;
+        PropertySchema schema = new PropertySchema();
+        try {
+            ((GeneratedSchema) generatedClass.getDeclaredConstructor().newInstance()).describe(new SchemaBuilder<>(schema));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        return schema;
+    }
+
+    /**
+     * Finds all the properties of the given class using reflection. This is only used for classes without a {@link GeneratedSchema generated schema}.
+     * Each annotated Method and Field is converted to a {@link MethodHandle} here, so reading or writing a property is a direct handle invocation.
+     */
+    private static PropertySchema reflect(Class<?> type) {
+        PropertySchema schema = new PropertySchema();
+        Map<String, MethodHandle[]> handles = new LinkedHashMap<>();
+        Map<String, Class<?>> types = new HashMap<>();
+        Map<String, PropertyOptions> options = new HashMap<>();
+
+        //-------------------METHOD MAPPING-------------------
+        Method[] methods = type.getMethods();
+        //stream silliness
+        Method[] getters = Arrays.stream(methods)
+                .filter((m)->m.isAnnotationPresent(AnnotatedSendable.Getter.class))
+                .filter((m)->m.getParameterCount()==0)
+                .filter((m)->m.getReturnType()!=Void.class)
+                .toArray(Method[]::new);
+        Method[] setters = Arrays.stream(methods)
+                .filter((m)->m.isAnnotationPresent(AnnotatedSendable.Setter.class))
+                .filter((m)->m.getParameterCount()==1)
+                .toArray(Method[]::new);
+        //verify and map all getters and setters
+        for (Method getter : getters) {
+            AnnotatedSendable.Getter annot = getter.getAnnotation(AnnotatedSendable.Getter.class);
+            String key = annot.key();
+            if (handles.containsKey(key)) throw new RuntimeException("Cannot have multiple getters of the same value");
+            handles.put(key, new MethodHandle[] {unreflect(getter), null});
+            types.put(key, getter.getReturnType());
+            options.put(key, new PropertyOptions(annot.period(), annot.onChange(), annot.epsilon(), annot.priority()));
+        }
+        for (Method setter : setters) {
+            String key = setter.getAnnotation(AnnotatedSendable.Setter.class).key();
+            if (!handles.containsKey(key)) throw new RuntimeException("All keys must have corresponding getters");
+            if (!types.get(key).equals(setter.getParameterTypes()[0])) throw new RuntimeException("Keys cannot have getters and setters for different value types");
+            handles.get(key)[1] = unreflect(setter);
+        }
+        //-------------------FIELD MAPPING-------------------
+        Field[] fields = Arrays.stream(type.getDeclaredFields())
+                .filter((f)->f.isAnnotationPresent(AnnotatedSendable.Variable.class))
+                .toArray(Field[]::new);
+        for (Field f : fields) {
+            AnnotatedSendable.Variable annot = f.getAnnotation(AnnotatedSendable.Variable.class);
+            f.setAccessible(true);
+            boolean isStatic = Modifier.isStatic(f.getModifiers());
+            try {
+                handles.put(annot.key(), new MethodHandle[] {
+                        receiver(LOOKUP.unreflectGetter(f), isStatic),
+                        annot.mutable() && !Modifier.isFinal(f.getModifiers()) ? receiver(LOOKUP.unreflectSetter(f), isStatic) : null
+                });
+                types.put(annot.key(), f.getType());
+                options.put(annot.key(), new PropertyOptions(annot.period(), annot.onChange(), annot.epsilon(), annot.priority()));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        //-------------------NESTED MAPPING-------------------
+        for (Method m : methods) {
+            AnnotatedSendable.Nested annot = m.getAnnotation(AnnotatedSendable.Nested.class);
+            if (annot == null || m.getParameterCount() != 0) continue;
+            if (!AnnotatedSendable.class.isAssignableFrom(m.getReturnType())) throw new RuntimeException("Nested methods must return an AnnotatedSendable");
+            schema.addNested(annot.key(), child(unreflect(m)));
+        }
+        for (Field f : type.getDeclaredFields()) {
+            AnnotatedSendable.Nested annot = f.getAnnotation(AnnotatedSendable.Nested.class);
+            if (annot == null) continue;
+            if (!AnnotatedSendable.class.isAssignableFrom(f.getType())) throw new RuntimeException("Nested fields must be an AnnotatedSendable");
+            f.setAccessible(true);
+            try {
+                schema.addNested(annot.key(), child(receiver(LOOKUP.unreflectGetter(f), Modifier.isStatic(f.getModifiers()))));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        for (Map.Entry<String, MethodHandle[]> entry : handles.entrySet()) {
+            Class<?> propertyType = types.get(entry.getKey());
+            if (schema.children.containsKey(entry.getKey())) throw new RuntimeException("Cannot have multiple getters of the same value");
+            schema.descriptors.put(entry.getKey(), new Descriptor(propertyType, options.get(entry.getKey()), binder(propertyType, entry.getValue()[0], entry.getValue()[1])));
+        }
+        return schema;
+    }
+
+    private static Function<Object, Object> child(MethodHandle getter) {
+        MethodHandle get = getter.asType(MethodType.methodType(Object.class, Object.class));
+        return (instance) -> {
+            try {
+                return (Object) get.invokeExact(instance);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        };
+    }
+
+    private static MethodHandle unreflect(Method m) {
+        //public methods of non-public classes still need to be made accessible
+        m.trySetAccessible();
+        try {
+            return receiver(LOOKUP.unreflect(m), Modifier.isStatic(m.getModifiers()));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Makes static members take (and ignore) an instance, so every handle's first parameter is the instance the property belongs to.
+     */
+    private static MethodHandle receiver(MethodHandle handle, boolean isStatic) {
+        return isStatic ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+    }
+
+    /**
+     * Creates the function used to bind the given handles to an instance. Primitive types are given primitive specialized handles, so their values are never boxed.
+     * @param type the type of the property
+     * @param getter handle that takes an instance and returns the value of the property
+     * @param setter handle that takes an instance and a value, and sets the property to that value. May be {@code null}.
+     */
+    private static Function<Object, Property> binder(Class<?> type, MethodHandle getter, MethodHandle setter) {
+        if (type.equals(double.class)) {
+            MethodHandle get = getter.asType(MethodType.methodType(double.class, Object.class));
+            MethodHandle set = setter == null ? null : MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, double.class));
+            return (instance) -> Property.ofDouble(
+                    () -> {
+                        try {
+                            return (double) get.invokeExact(instance);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    },
+                    set == null ? null : (value) -> {
+                        try {
+                            set.invokeExact(instance, value);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    }
+            );
+        } else if (type.equals(int.class) || type.equals(long.class)) {
+            MethodHandle get = getter.asType(MethodType.methodType(long.class, Object.class));
+            //int setters are narrowed from the long values sent by the dashboard
+            MethodHandle set = setter == null ? null : MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, long.class));
+            return (instance) -> Property.ofLong(
+                    () -> {
+                        try {
+                            return (long) get.invokeExact(instance);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    },
+                    set == null ? null : (value) -> {
+                        try {
+                            set.invokeExact(instance, value);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    }
+            );
+        } else if (type.equals(float.class)) {
+            MethodHandle get = getter.asType(MethodType.methodType(float.class, Object.class));
+            MethodHandle set = setter == null ? null : MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, float.class));
+            return (instance) -> Property.ofFloat(
+                    () -> {
+                        try {
+                            return (float) get.invokeExact(instance);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    },
+                    set == null ? null : (value) -> {
+                        try {
+                            set.invokeExact(instance, value);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    }
+            );
+        } else if (type.equals(boolean.class)) {
+            MethodHandle get = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            MethodHandle set = setter == null ? null : MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, boolean.class));
+            return (instance) -> Property.ofBoolean(
+                    () -> {
+                        try {
+                            return (boolean) get.invokeExact(instance);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    },
+                    set == null ? null : (value) -> {
+                        try {
+                            set.invokeExact(instance, value);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    }
+            );
+        } else {
+            MethodHandle get = getter.asType(MethodType.methodType(Object.class, Object.class));
+            MethodHandle set = setter == null ? null : MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, Object.class));
+            return (instance) -> Property.ofObject(
+                    type,
+                    () -> {
+                        try {
+                            return (Object) get.invokeExact(instance);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    },
+                    set == null ? null : (value) -> {
+                        try {
+                            set.invokeExact(instance, value);
+                        } catch (Throwable t) {
+                            throw propagate(t);
+                        }
+                    }
+            );
+        }
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof Error e) throw e;
+        if (t instanceof RuntimeException e) return e;
+        return new RuntimeException(t);
+    }
+
+    record Descriptor(Class<?> type, PropertyOptions options, Function<Object, Property> binder) {}
+}
@@ -0,0 +1,199 @@
+package org.ice.util.sendable;
+
+import java.util.function.*;
+
+/**
+ * Builder that {@link GeneratedSchema generated schemas} use to add properties. The getters and setters added to this builder are not bound to an instance,
+ * and are instead passed the instance that the property is being read from or written to.
+ * Primitive properties should be added using their primitive specialized methods, so their values are never boxed. {@code int} properties are added as {@code long} properties.
+ * @param <T> the type the properties belong to
+ */
+public final class SchemaBuilder<T> {
+
+    private final PropertySchema schema;
+
+    SchemaBuilder(PropertySchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Adds a {@code double} property with the given key to the schema.
+     * @param key the key of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addDouble(String key, ToDoubleFunction<? super T> getter, ObjDoubleConsumer<? super T> setter) {
+        return addDouble(key, PropertyOptions.DEFAULT, getter, setter);
+    }
+
+    /**
+     * Adds a {@code double} property with the given key and options to the schema.
+     * @param key the key of the property
+     * @param options the options of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addDouble(String key, PropertyOptions options, ToDoubleFunction<? super T> getter, ObjDoubleConsumer<? super T> setter) {
+        schema.add(key, double.class, options, (instance) -> Property.ofDouble(
+                () -> getter.applyAsDouble(cast(instance)),
+                setter == null ? null : (value) -> setter.accept(cast(instance), value)
+        ));
+        return this;
+    }
+
+    /**
+     * Adds a {@code long} property with the given key to the schema.
+     * @param key the key of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addLong(String key, ToLongFunction<? super T> getter, ObjLongConsumer<? super T> setter) {
+        return addLong(key, PropertyOptions.DEFAULT, getter, setter);
+    }
+
+    /**
+     * Adds a {@code long} property with the given key and options to the schema.
+     * @param key the key of the property
+     * @param options the options of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addLong(String key, PropertyOptions options, ToLongFunction<? super T> getter, ObjLongConsumer<? super T> setter) {
+        schema.add(key, long.class, options, (instance) -> Property.ofLong(
+                () -> getter.applyAsLong(cast(instance)),
+                setter == null ? null : (value) -> setter.accept(cast(instance), value)
+        ));
+        return this;
+    }
+
+    /**
+     * Adds a {@code float} property with the given key to the schema.
+     * @param key the key of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addFloat(String key, ToFloatFunction<? super T> getter, ObjFloatConsumer<? super T> setter) {
+        return addFloat(key, PropertyOptions.DEFAULT, getter, setter);
+    }
+
+    /**
+     * Adds a {@code float} property with the given key and options to the schema.
+     * @param key the key of the property
+     * @param options the options of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addFloat(String key, PropertyOptions options, ToFloatFunction<? super T> getter, ObjFloatConsumer<? super T> setter) {
+        schema.add(key, float.class, options, (instance) -> Property.ofFloat(
+                () -> getter.applyAsFloat(cast(instance)),
+                setter == null ? null : (value) -> setter.accept(cast(instance), value)
+        ));
+        return this;
+    }
+
+    /**
+     * Adds a {@code boolean} property with the given key to the schema.
+     * @param key the key of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addBoolean(String key, Predicate<? super T> getter, ObjBooleanConsumer<? super T> setter) {
+        return addBoolean(key, PropertyOptions.DEFAULT, getter, setter);
+    }
+
+    /**
+     * Adds a {@code boolean} property with the given key and options to the schema.
+     * @param key the key of the property
+     * @param options the options of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addBoolean(String key, PropertyOptions options, Predicate<? super T> getter, ObjBooleanConsumer<? super T> setter) {
+        schema.add(key, boolean.class, options, (instance) -> Property.ofBoolean(
+                () -> getter.test(cast(instance)),
+                setter == null ? null : (value) -> setter.accept(cast(instance), value)
+        ));
+        return this;
+    }
+
+    /**
+     * Adds a property of a non-primitive type with the given key to the schema.
+     * @param key the key of the property
+     * @param type the type of the property, this must be one of the non-primitive types supported by {@link AnnotatedSendable}
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> add(String key, Class<?> type, Function<? super T, ?> getter, BiConsumer<? super T, Object> setter) {
+        return add(key, type, PropertyOptions.DEFAULT, getter, setter);
+    }
+
+    /**
+     * Adds a property of a non-primitive type with the given key and options to the schema.
+     * @param key the key of the property
+     * @param type the type of the property, this must be one of the non-primitive types supported by {@link AnnotatedSendable}
+     * @param options the options of the property
+     * @param getter function that returns the value of the property for the given instance
+     * @param setter function that sets the value of the property for the given instance, or {@code null} if the property is immutable
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> add(String key, Class<?> type, PropertyOptions options, Function<? super T, ?> getter, BiConsumer<? super T, Object> setter) {
+        schema.add(key, type, options, (instance) -> Property.ofObject(
+                type,
+                () -> getter.apply(cast(instance)),
+                setter == null ? null : (value) -> setter.accept(cast(instance), value)
+        ));
+        return this;
+    }
+
+    /**
+     * Adds a {@link AnnotatedSendable.Nested nested} sendable with the given key to the schema.
+     * @param key the key of the nested sendable, which is added in front of the keys of its properties
+     * @param child function that returns the nested sendable of the given instance
+     * @return itself, for method chaining
+     */
+    public SchemaBuilder<T> addNested(String key, Function<? super T, ? extends AnnotatedSendable> child) {
+        schema.addNested(key, (instance) -> child.apply(cast(instance)));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object instance) {
+        return (T) instance;
+    }
+
+    /**
+     * Function that returns a {@code float} for the given value. This is the {@code float} specialization of {@link Function}.
+     * @param <T> the type of the input to the function
+     */
+    @FunctionalInterface
+    public interface ToFloatFunction<T> {
+        float applyAsFloat(T value);
+    }
+
+    /**
+     * Operation that accepts an object and a {@code float}. This is the {@code float} specialization of {@link BiConsumer}.
+     * @param <T> the type of the object argument
+     */
+    @FunctionalInterface
+    public interface ObjFloatConsumer<T> {
+        void accept(T t, float value);
+    }
+
+    /**
+     * Operation that accepts an object and a {@code boolean}. This is the {@code boolean} specialization of {@link BiConsumer}.
+     * @param <T> the type of the object argument
+     */
+    @FunctionalInterface
+    public interface ObjBooleanConsumer<T> {
+        void accept(T t, boolean value);
+    }
+}
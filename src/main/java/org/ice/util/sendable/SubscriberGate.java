@@ -0,0 +1,207 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.networktables.NTSendableBuilder;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.RawSubscriber;
+import edu.wpi.first.networktables.Topic;
+import edu.wpi.first.util.sendable.SendableBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>
+ * Tracks whether a NetworkTables topic has any subscribers, so the getter of an {@link AnnotatedSendable} property can be skipped while nobody is looking at it.
+ * Subscribers are found using the {@code $sub$} meta topic that NetworkTables publishes for every topic, which lists the subscribers of that topic.
+ * Only remote subscribers count (such as AdvantageScope or Shuffleboard); the subscribers the robot creates for itself, and subscribers that only want the topic list, are ignored.
+ * </p>
+ * Gating is disabled by default, since it also stops properties from being recorded by local loggers (such as {@code DataLogManager}) while no dashboard is connected.
+ * It can be enabled before the sendables are built using {@link #setEnabled(boolean)}. If the meta topic has no value, the topic is treated as subscribed.
+ */
+public final class SubscriberGate implements BooleanSupplier {
+
+    private static volatile boolean enabled = false;
+
+    private final RawSubscriber subscriber;
+
+    private long lastChange = 0;
+    private boolean subscribed = true;
+
+    private SubscriberGate(RawSubscriber subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Sets whether properties should only be read while their topic has subscribers. Only affects sendables that are built after this is called.
+     * @param enabled whether properties should only be read while subscribed to
+     */
+    public static void setEnabled(boolean enabled) {
+        SubscriberGate.enabled = enabled;
+    }
+
+    /**
+     * @return whether properties are only read while their topic has subscribers
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates a gate for the topic of the given property, the subscriber used by the gate is closed along with the builder.
+     * @param builder the builder the property is being added to
+     * @param key the key of the property
+     * @return the gate, or {@code null} if gating is disabled or the builder is not backed by NetworkTables
+     */
+    static SubscriberGate of(SendableBuilder builder, String key) {
+        if (!enabled || !(builder instanceof NTSendableBuilder ntBuilder)) return null;
+        Topic topic = ntBuilder.getTopic(key);
+        RawSubscriber subscriber = topic.getInstance().getRawTopic("$sub$" + topic.getName())
+                .subscribe("msgpack", new byte[0], PubSubOption.hidden(true));
+        builder.addCloseable(subscriber);
+        return new SubscriberGate(subscriber);
+    }
+
+    /**
+     * @return whether the topic has any remote subscribers. The meta topic is only decoded when it changes, so this is cheap to call every update.
+     */
+    @Override
+    public boolean getAsBoolean() {
+        long change = subscriber.getLastChange();
+        if (change != lastChange) {
+            lastChange = change;
+            try {
+                subscribed = hasRemoteSubscriber(subscriber.get());
+            } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                subscribed = true;
+            }
+        }
+        return subscribed;
+    }
+
+    /**
+     * Decodes the value of a {@code $sub$} meta topic, which is a MessagePack array of maps with the
+     * {@code client}, {@code subuid}, and {@code options} of each subscriber.
+     * @return whether any subscriber belongs to a remote client, and wants values. {@code true} if there is no value.
+     */
+    static boolean hasRemoteSubscriber(byte[] data) {
+        if (data.length == 0) return true;
+        MessagePackReader reader = new MessagePackReader(data);
+        int subscribers = reader.readArrayHeader();
+        boolean remote = false;
+        for (int i = 0; i < subscribers; i++) {
+            boolean hasClient = false;
+            boolean topicsOnly = false;
+            int entries = reader.readMapHeader();
+            for (int j = 0; j < entries; j++) {
+                String entryKey = reader.readString();
+                if (entryKey.equals("client")) {
+                    hasClient = !reader.readString().isEmpty();
+                } else if (entryKey.equals("options")) {
+                    int options = reader.readMapHeader();
+                    for (int k = 0; k < options; k++) {
+                        if (reader.readString().equals("topicsonly")) topicsOnly = reader.readBoolean();
+                        else reader.skip();
+                    }
+                } else {
+                    reader.skip();
+                }
+            }
+            if (hasClient && !topicsOnly) remote = true;
+        }
+        return remote;
+    }
+
+    /**
+     * Reader for the subset of MessagePack used by the NetworkTables meta topics.
+     */
+    private static final class MessagePackReader {
+
+        private final byte[] data;
+        private int position = 0;
+
+        private MessagePackReader(byte[] data) {
+            this.data = data;
+        }
+
+        private int next() {
+            return data[position++] & 0xFF;
+        }
+
+        private long readUnsigned(int bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) value = (value << 8) | next();
+            return value;
+        }
+
+        int readArrayHeader() {
+            int type = next();
+            if ((type & 0xF0) == 0x90) return type & 0x0F;
+            if (type == 0xDC) return (int) readUnsigned(2);
+            if (type == 0xDD) return (int) readUnsigned(4);
+            throw new IllegalArgumentException("Expected a MessagePack array");
+        }
+
+        int readMapHeader() {
+            int type = next();
+            if ((type & 0xF0) == 0x80) return type & 0x0F;
+            if (type == 0xDE) return (int) readUnsigned(2);
+            if (type == 0xDF) return (int) readUnsigned(4);
+            throw new IllegalArgumentException("Expected a MessagePack map");
+        }
+
+        String readString() {
+            int length = stringLength(next());
+            if (length < 0) throw new IllegalArgumentException("Expected a MessagePack string");
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        boolean readBoolean() {
+            int type = next();
+            if (type == 0xC2) return false;
+            if (type == 0xC3) return true;
+            throw new IllegalArgumentException("Expected a MessagePack boolean");
+        }
+
+        private int stringLength(int type) {
+            if ((type & 0xE0) == 0xA0) return type & 0x1F;
+            if (type == 0xD9) return (int) readUnsigned(1);
+            if (type == 0xDA) return (int) readUnsigned(2);
+            if (type == 0xDB) return (int) readUnsigned(4);
+            return -1;
+        }
+
+        /**
+         * Skips the next value, including any values nested inside of it.
+         */
+        void skip() {
+            int type = data[position] & 0xFF;
+            if (type <= 0x7F || type >= 0xE0 || type == 0xC0 || type == 0xC2 || type == 0xC3) {
+                position++;
+            } else if ((type & 0xF0) == 0x90 || type == 0xDC || type == 0xDD) {
+                int length = readArrayHeader();
+                for (int i = 0; i < length; i++) skip();
+            } else if ((type & 0xF0) == 0x80 || type == 0xDE || type == 0xDF) {
+                int length = readMapHeader();
+                for (int i = 0; i < length * 2; i++) skip();
+            } else {
+                position++;
+                int length = stringLength(type);
+                if (length < 0) {
+                    length = switch (type) {
+                        case 0xC4 -> (int) readUnsigned(1);
+                        case 0xC5 -> (int) readUnsigned(2);
+                        case 0xC6 -> (int) readUnsigned(4);
+                        case 0xCC, 0xD0 -> 1;
+                        case 0xCD, 0xD1 -> 2;
+                        case 0xCA, 0xCE, 0xD2 -> 4;
+                        case 0xCB, 0xCF, 0xD3 -> 8;
+                        default -> throw new IllegalArgumentException("Unsupported MessagePack type " + type);
+                    };
+                }
+                position += length;
+            }
+        }
+    }
+}
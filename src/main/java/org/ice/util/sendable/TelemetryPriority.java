@@ -0,0 +1,19 @@
+package org.ice.util.sendable;
+
+/**
+ * How important it is that a property is read every loop, used by the {@link TelemetryScheduler} to decide which properties to skip when over budget.
+ */
+public enum TelemetryPriority {
+    /**
+     * Always read, even when over budget.
+     */
+    CRITICAL,
+    /**
+     * Read as long as there is budget left after the critical properties.
+     */
+    NORMAL,
+    /**
+     * Only read with the budget left after the critical and normal properties.
+     */
+    DEBUG
+}
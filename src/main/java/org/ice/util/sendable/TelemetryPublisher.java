@@ -0,0 +1,366 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.networktables.GenericEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+import edu.wpi.first.networktables.PubSubOption;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Publishes the properties of {@link AnnotatedSendable AnnotatedSendables} to NetworkTables without doing the publishing on the main robot thread.
+ * Calling {@link #snapshot()} on the main thread only reads the value of every property into a pre-allocated frame, which is then published by a low priority background thread.
+ * Values set from the dashboard are read by the background thread, and passed to the setters of the properties on the next call to {@link #snapshot()},
+ * so getters and setters are only ever called on the main thread. Values set in the same snapshot are applied as one {@link AnnotatedSendable#beginPropertyChanges() batch}.
+ * </p>
+ * Sendables published this way should not also be added to {@code SmartDashboard}. For example:
+ * <pre>
+ *{@code
+ * TelemetryPublisher telemetry = new TelemetryPublisher();
+ * telemetry.add("SmartDashboard/Drive", driveTrain);
+ *
+ * @Override
+ * public void robotPeriodic() {
+ *     CommandScheduler.getInstance().run();
+ *     telemetry.snapshot();
+ * }
+ *}
+ *</pre>
+ * Non-primitive values (such as arrays) are not copied, so getters returning arrays should return a new array rather than one that they keep modifying.
+ * The publisher is also an {@link AnnotatedSendable}, which shows how long snapshots and publishing take.
+ */
+public final class TelemetryPublisher implements AnnotatedSendable, AutoCloseable {
+
+    private static final int DOUBLE = 0, FLOAT = 1, LONG = 2, BOOLEAN = 3, OBJECT = 4;
+
+    private final NetworkTableInstance instance;
+    private final int capacity;
+    private final List<Channel> channels = new ArrayList<>();
+    private final Queue<Update> updates = new ConcurrentLinkedQueue<>();
+    private final List<ChangeBatch> batches = new ArrayList<>();
+
+    private Frame[] frames;
+    private int doubles, longs, booleans, objects;
+
+    //the main thread writes frames at head, the background thread publishes frames at tail
+    private volatile long head = 0;
+    private volatile long tail = 0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    private long snapshots = 0;
+    private long totalSnapshotNanos = 0;
+    private volatile long lastSnapshotNanos = 0;
+    private volatile long maxSnapshotNanos = 0;
+    private volatile long lastPublishNanos = 0;
+    private volatile long maxPublishNanos = 0;
+    private volatile long droppedFrames = 0;
+
+    /**
+     * Creates a publisher for the given NetworkTables instance.
+     * @param instance the instance to publish to
+     * @param capacity the number of frames that can be waiting to be published, if the background thread falls further behind than this, snapshots are skipped
+     */
+    public TelemetryPublisher(NetworkTableInstance instance, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.instance = instance;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a publisher for the default NetworkTables instance, with room for 4 frames.
+     */
+    public TelemetryPublisher() {
+        this(NetworkTableInstance.getDefault(), 4);
+    }
+
+    /**
+     * Adds every property of the given sendable, which will be published in the table with the given path.
+     * Sendables can only be added before the first {@link #snapshot()}.
+     * @param path the path of the table, such as {@code "SmartDashboard/Drive"}
+     * @param sendable the sendable to publish
+     */
+    public void add(String path, AnnotatedSendable sendable) {
+        if (frames != null) throw new IllegalStateException("Sendables cannot be added after the first snapshot");
+        String prefix = path.startsWith("/") ? path : "/" + path;
+        Map<String, Property> properties = PropertySchema.of(sendable.getClass()).bind(sendable);
+        batches.addAll(ChangeBatch.wrapAll(properties.values(), true));
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue().prepare();
+            Class<?> type = property.getType();
+            if (type.isAssignableFrom(AutoCloseable.class)) continue;
+            int kind;
+            int index;
+            if (type.equals(double.class)) {
+                kind = DOUBLE;
+                index = doubles++;
+            } else if (type.equals(float.class)) {
+                kind = FLOAT;
+                index = doubles++;
+            } else if (type.equals(long.class)) {
+                kind = LONG;
+                index = longs++;
+            } else if (type.equals(boolean.class)) {
+                kind = BOOLEAN;
+                index = booleans++;
+            } else {
+                kind = OBJECT;
+                index = objects++;
+            }
+            GenericEntry publisher = instance.getTopic(prefix + "/" + entry.getKey())
+                    .getGenericEntry(typeString(type), PubSubOption.excludeSelf(true));
+            channels.add(new Channel(property, publisher, kind, index));
+        }
+    }
+
+    /**
+     * Reads the value of every property into the next frame, and wakes up the background thread to publish it. This should be called on the main thread once per loop.
+     * Any values set from the dashboard since the last snapshot are applied first.
+     */
+    public void snapshot() {
+        if (frames == null) start();
+        if (!updates.isEmpty()) {
+            for (Update update = updates.poll(); update != null; update = updates.poll()) {
+                update.apply();
+            }
+            for (int i = 0; i < batches.size(); i++) {
+                batches.get(i).end();
+            }
+        }
+        long start = System.nanoTime();
+        long next = head;
+        if (next - tail >= capacity) {
+            droppedFrames++;
+            return;
+        }
+        Frame frame = frames[(int) (next % capacity)];
+        frame.timestamp = NetworkTablesJNI.now();
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = channels.get(i);
+            Property property = channel.property;
+            switch (channel.kind) {
+                case DOUBLE -> frame.doubles[channel.index] = property.getDouble();
+                case FLOAT -> frame.doubles[channel.index] = property.getFloat();
+                case LONG -> frame.longs[channel.index] = property.getLong();
+                case BOOLEAN -> frame.booleans[channel.index] = property.getBoolean();
+                default -> frame.objects[channel.index] = property.getObject();
+            }
+        }
+        head = next + 1;
+        LockSupport.unpark(thread);
+        long elapsed = System.nanoTime() - start;
+        snapshots++;
+        totalSnapshotNanos += elapsed;
+        lastSnapshotNanos = elapsed;
+        if (elapsed > maxSnapshotNanos) maxSnapshotNanos = elapsed;
+    }
+
+    private void start() {
+        frames = new Frame[capacity];
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = new Frame(doubles, longs, booleans, objects);
+        }
+        running = true;
+        thread = new Thread(this::run, "TelemetryPublisher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            if (tail == head) {
+                LockSupport.parkNanos(20_000_000);
+            } else {
+                long start = System.nanoTime();
+                publish(frames[(int) (tail % capacity)]);
+                tail = tail + 1;
+                long elapsed = System.nanoTime() - start;
+                lastPublishNanos = elapsed;
+                if (elapsed > maxPublishNanos) maxPublishNanos = elapsed;
+            }
+            readDashboard();
+        }
+    }
+
+    private void publish(Frame frame) {
+        long time = frame.timestamp;
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = channels.get(i);
+            GenericEntry entry = channel.entry;
+            switch (channel.kind) {
+                case DOUBLE -> entry.setDouble(frame.doubles[channel.index], time);
+                case FLOAT -> entry.setFloat((float) frame.doubles[channel.index], time);
+                case LONG -> entry.setInteger(frame.longs[channel.index], time);
+                case BOOLEAN -> entry.setBoolean(frame.booleans[channel.index], time);
+                default -> {
+                    publishObject(channel, frame.objects[channel.index], time);
+                    //don't keep the value alive until the frame is reused
+                    frame.objects[channel.index] = null;
+                }
+            }
+        }
+    }
+
+    private void publishObject(Channel channel, Object value, long time) {
+        GenericEntry entry = channel.entry;
+        if (value instanceof String string) entry.setString(string, time);
+        else if (value instanceof int[] array) entry.setIntegerArray(channel.property.widen(array), time);
+        else if (value instanceof long[] array) entry.setIntegerArray(array, time);
+        else if (value instanceof double[] array) entry.setDoubleArray(array, time);
+        else if (value instanceof float[] array) entry.setFloatArray(array, time);
+        else if (value instanceof boolean[] array) entry.setBooleanArray(array, time);
+        else if (value instanceof String[] array) entry.setStringArray(array, time);
+    }
+
+    /**
+     * Queues every value that was set from the dashboard, to be applied on the main thread.
+     */
+    private void readDashboard() {
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = channels.get(i);
+            if (!channel.property.isMutable()) continue;
+            for (NetworkTableValue value : channel.entry.readQueue()) {
+                updates.add(new Update(channel, value));
+            }
+        }
+    }
+
+    private static String typeString(Class<?> type) {
+        if (type.equals(double.class)) return "double";
+        if (type.equals(float.class)) return "float";
+        if (type.equals(long.class)) return "int";
+        if (type.equals(boolean.class)) return "boolean";
+        if (type.equals(String.class)) return "string";
+        if (type.equals(int[].class) || type.equals(long[].class)) return "int[]";
+        if (type.equals(double[].class)) return "double[]";
+        if (type.equals(float[].class)) return "float[]";
+        if (type.equals(boolean[].class)) return "boolean[]";
+        if (type.equals(String[].class)) return "string[]";
+        throw new UnsupportedOperationException("A field or method annotated for sending has an invalid type (" + type.getSimpleName() + ")," +
+                " valid types are: int,long,float,double,boolean,String,int[],long[],float[],double[],boolean[],String[], and AutoCloseable");
+    }
+
+    /**
+     * @return how long the last snapshot took on the main thread, in milliseconds
+     */
+    @Getter(key="Snapshot Time")
+    public double getLastSnapshotTime() {
+        return lastSnapshotNanos / 1e6;
+    }
+
+    /**
+     * @return the longest time a snapshot took on the main thread, in milliseconds
+     */
+    @Getter(key="Max Snapshot Time")
+    public double getMaxSnapshotTime() {
+        return maxSnapshotNanos / 1e6;
+    }
+
+    /**
+     * @return the average time a snapshot took on the main thread, in milliseconds
+     */
+    @Getter(key="Average Snapshot Time")
+    public double getAverageSnapshotTime() {
+        return snapshots == 0 ? 0 : totalSnapshotNanos / (snapshots * 1e6);
+    }
+
+    /**
+     * @return how long publishing the last frame took on the background thread, in milliseconds. This is the time that is no longer spent on the main thread.
+     */
+    @Getter(key="Publish Time")
+    public double getLastPublishTime() {
+        return lastPublishNanos / 1e6;
+    }
+
+    /**
+     * @return the longest time publishing a frame took on the background thread, in milliseconds
+     */
+    @Getter(key="Max Publish Time")
+    public double getMaxPublishTime() {
+        return maxPublishNanos / 1e6;
+    }
+
+    /**
+     * @return the number of snapshots that were skipped because the background thread had fallen behind
+     */
+    @Getter(key="Dropped Frames")
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Resets the maximum and average times.
+     */
+    public void resetStats() {
+        snapshots = 0;
+        totalSnapshotNanos = 0;
+        maxSnapshotNanos = 0;
+        maxPublishNanos = 0;
+        droppedFrames = 0;
+    }
+
+    /**
+     * Stops the background thread, closes every publisher, and removes every property from the {@link TelemetryScheduler}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Channel channel : channels) {
+            channel.entry.close();
+            channel.property.unschedule();
+        }
+    }
+
+    private record Channel(Property property, GenericEntry entry, int kind, int index) {}
+
+    /**
+     * A value set from the dashboard, applied on the main thread.
+     */
+    private record Update(Channel channel, NetworkTableValue value) {
+        void apply() {
+            Property property = channel.property;
+            switch (channel.kind) {
+                case DOUBLE -> property.setDouble(value.getDouble());
+                case FLOAT -> property.setFloat(value.getFloat());
+                case LONG -> property.setLong(value.getInteger());
+                case BOOLEAN -> property.setBoolean(value.getBoolean());
+                default -> property.setObject(value.getValue());
+            }
+        }
+    }
+
+    /**
+     * The values of every property at one point in time. Floats are stored with the doubles.
+     */
+    private static final class Frame {
+
+        private long timestamp;
+        private final double[] doubles;
+        private final long[] longs;
+        private final boolean[] booleans;
+        private final Object[] objects;
+
+        private Frame(int doubles, int longs, int booleans, int objects) {
+            this.doubles = new double[doubles];
+            this.longs = new long[longs];
+            this.booleans = new boolean[booleans];
+            this.objects = new Object[objects];
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.ice.util.sendable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Limits how much time is spent reading {@link AnnotatedSendable} properties every loop.
+ * Every property registers with the scheduler when its sendable is built, and the scheduler keeps a running average of how long each property takes to read.
+ * At the start of every loop, {@link #beginLoop()} picks which properties will be read in that loop:
+ * {@link TelemetryPriority#CRITICAL critical} properties are always read, then {@link TelemetryPriority#NORMAL normal} and {@link TelemetryPriority#DEBUG debug} properties
+ * are picked in that order until the {@link #setBudget(double) budget} is used up. Properties that are not picked keep publishing their last value.
+ * </p>
+ * Within the normal and debug priorities, picking starts where the last loop stopped, so when over budget every property is still read every few loops, rather than some of them never being read.
+ * The scheduler is disabled by default, and only affects sendables that are built after it is {@link #setEnabled(boolean) enabled}:
+ * <pre>
+ *{@code
+ * TelemetryScheduler.setEnabled(true);
+ * TelemetryScheduler.setBudget(1500);
+ *
+ * @Override
+ * public void robotPeriodic() {
+ *     TelemetryScheduler.beginLoop();
+ *     CommandScheduler.getInstance().run();
+ * }
+ *}
+ *</pre>
+ * If {@link #beginLoop()} is never called, every property is read every loop.
+ */
+public final class TelemetryScheduler {
+
+    /**
+     * Weight of the newest measurement in the running average of the time each property takes to read.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private static volatile boolean enabled = false;
+    private static double budgetNanos = 2_000_000;
+
+    private static final Tier NORMAL = new Tier();
+    private static final Tier DEBUG = new Tier();
+
+    private static int lastScheduled = 0;
+    private static int lastSkipped = 0;
+
+    private TelemetryScheduler() {}
+
+    /**
+     * Sets whether properties should be scheduled. Only affects sendables that are built after this is called.
+     * @param enabled whether properties should be scheduled
+     */
+    public static void setEnabled(boolean enabled) {
+        TelemetryScheduler.enabled = enabled;
+    }
+
+    /**
+     * @return whether properties are scheduled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the time that can be spent reading normal and debug properties every loop. Critical properties are always read, and do not count towards the budget.
+     * @param micros the budget in microseconds
+     */
+    public static synchronized void setBudget(double micros) {
+        if (!(micros >= 0)) throw new IllegalArgumentException("Budget must be non-negative (" + micros + ")");
+        budgetNanos = micros * 1e3;
+    }
+
+    /**
+     * @return the time that can be spent reading normal and debug properties every loop, in microseconds
+     */
+    public static synchronized double getBudget() {
+        return budgetNanos / 1e3;
+    }
+
+    /**
+     * Registers a property with the given priority. Critical properties are always read, so they are not registered.
+     * The property stays registered until its slot is {@link Slot#close() closed}, which happens when the builder of its sendable is closed.
+     * @param priority the priority of the property
+     * @return the slot of the property
+     */
+    static synchronized Slot register(TelemetryPriority priority) {
+        Tier tier = priority == TelemetryPriority.DEBUG ? DEBUG : NORMAL;
+        Slot slot = new Slot(tier);
+        tier.slots.add(slot);
+        return slot;
+    }
+
+    private static synchronized void unregister(Slot slot) {
+        slot.tier.remove(slot);
+    }
+
+    /**
+     * @return the number of registered normal and debug properties
+     */
+    public static synchronized int getRegistered() {
+        return NORMAL.slots.size() + DEBUG.slots.size();
+    }
+
+    /**
+     * Picks which properties will be read this loop. This should be called once per loop, before the sendables are updated.
+     */
+    public static synchronized void beginLoop() {
+        lastScheduled = 0;
+        lastSkipped = 0;
+        DEBUG.pick(NORMAL.pick(budgetNanos));
+    }
+
+    /**
+     * @return the number of normal and debug properties picked in the last loop
+     */
+    public static synchronized int getLastScheduled() {
+        return lastScheduled;
+    }
+
+    /**
+     * @return the number of normal and debug properties skipped in the last loop
+     */
+    public static synchronized int getLastSkipped() {
+        return lastSkipped;
+    }
+
+    /**
+     * The properties of a single priority, and where picking should start in the next loop.
+     */
+    private static final class Tier {
+
+        private final List<Slot> slots = new ArrayList<>();
+        private int cursor = 0;
+
+        /**
+         * Picks properties starting at the cursor, until the next property does not fit in the remaining budget.
+         * At least one property is always picked, so a property that takes longer than the whole budget cannot stop the properties after it from being read.
+         * @return the budget left after the picked properties
+         */
+        private double pick(double remaining) {
+            int size = slots.size();
+            if (size == 0) return remaining;
+            int picked = 0;
+            while (picked < size) {
+                Slot slot = slots.get((cursor + picked) % size);
+                if (picked > 0 && slot.cost > remaining) break;
+                remaining -= slot.cost;
+                slot.allowed = true;
+                picked++;
+            }
+            for (int i = picked; i < size; i++) {
+                slots.get((cursor + i) % size).allowed = false;
+            }
+            lastScheduled += picked;
+            lastSkipped += size - picked;
+            cursor = (cursor + picked) % size;
+            return Math.max(remaining, 0);
+        }
+
+        /**
+         * Removes the given slot, keeping the cursor on the same slot so the round robin order is not disturbed.
+         */
+        private void remove(Slot slot) {
+            int index = slots.indexOf(slot);
+            if (index < 0) return;
+            slots.remove(index);
+            if (index < cursor) cursor--;
+            if (cursor >= slots.size()) cursor = 0;
+        }
+    }
+
+    /**
+     * Scheduling state of a single property. Closing the slot removes the property from the scheduler, after which it is read every loop.
+     */
+    static final class Slot implements AutoCloseable {
+
+        private final Tier tier;
+
+        /**
+         * Whether the property should be read this loop.
+         */
+        private boolean allowed = true;
+
+        /**
+         * Running average of the time the property takes to read, in nanoseconds. Properties that were never read are assumed to be free, so they are read as soon as possible.
+         */
+        private double cost = 0;
+
+        private Slot(Tier tier) {
+            this.tier = tier;
+        }
+
+        boolean isAllowed() {
+            return allowed;
+        }
+
+        void record(long nanos) {
+            cost += SMOOTHING * (nanos - cost);
+        }
+
+        @Override
+        public void close() {
+            unregister(this);
+            allowed = true;
+        }
+    }
+}
@@ -39,7 +39,10 @@ public abstract class PositionSubsystemBase extends AnnotatedSubsystemBase imple
         return goal;
     }
 
-    /**{@inheritDoc}*/
+    /**
+     * {@inheritDoc}
+     * Annotations on methods are not inherited, so the tolerance is only published if the override is annotated, such as with {@code @Getter(key="Tolerance",period=1)}.
+     */
     @Override
     @Getter(key="Tolerance")
     public abstract double getTolerance();
@@ -16,10 +16,20 @@ import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.units.Units;
 import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Temperature;
+import org.ice.util.motor.StartupConfigurator;
+import org.ice.util.motor.StatusSignalRegistry;
 
 import static com.ctre.phoenix6.swerve.SwerveModule.ModuleRequest;
 
 public class CTRESwerveModule implements SwerveModule {
+    /**
+     * The CAN bus every module's devices are created on, which is the roboRIO's own bus.
+     */
+    public static final String CAN_BUS = StartupConfigurator.RIO_BUS;
+    /**
+     * Number of devices each module configures: the drive motor, the steer motor and the CANcoder.
+     */
+    public static final int DEVICES = 3;
     private com.ctre.phoenix6.swerve.SwerveModule<CommonTalon, CommonTalon, ParentDevice> internalModule;
     private StatusSignal<Temperature> driveTemp, turnTemp;
     private StatusSignal<Current> driveCurrent, turnCurrent;
@@ -67,7 +77,7 @@ public class CTRESwerveModule implements SwerveModule {
                 turnConfig.motorType == MotorType.TALONFX ? TalonFX::new : TalonFXS::new,
                 CANcoder::new,
                 constants,
-                "",
+                CAN_BUS,
                 0,
                 moduleConfig.moduleIndex
         );
@@ -75,6 +85,7 @@ public class CTRESwerveModule implements SwerveModule {
         turnTemp = internalModule.getSteerMotor().getDeviceTemp();
         driveCurrent = internalModule.getDriveMotor().getStatorCurrent();
         turnCurrent = internalModule.getSteerMotor().getStatorCurrent();
+        StatusSignalRegistry.register(CAN_BUS, driveTemp, turnTemp, driveCurrent, turnCurrent);
     }
 
     @Override
@@ -120,22 +131,42 @@ public class CTRESwerveModule implements SwerveModule {
 
     @Override
     public double getDriveTempCelsius() {
-        return driveTemp.refresh().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return driveTemp.getValueAsDouble();
     }
 
     @Override
     public double getTurnTempCelsius() {
-        return turnTemp.refresh().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return turnTemp.getValueAsDouble();
     }
 
     @Override
     public double getDriveCurrent() {
-        return driveCurrent.refresh().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return driveCurrent.getValueAsDouble();
     }
 
     @Override
     public double getTurnCurrent() {
-        return turnCurrent.refresh().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return turnCurrent.getValueAsDouble();
+    }
+
+    /**
+     * Gets the drive motor of this module, such as for sampling its signals with a {@link org.ice.util.motor.SignalAcquisition SignalAcquisition}.
+     * @return the drive motor
+     */
+    public CommonTalon getDriveMotor() {
+        return internalModule.getDriveMotor();
+    }
+
+    /**
+     * Gets the steer motor of this module, such as for sampling its signals with a {@link org.ice.util.motor.SignalAcquisition SignalAcquisition}.
+     * @return the steer motor
+     */
+    public CommonTalon getSteerMotor() {
+        return internalModule.getSteerMotor();
     }
 
     @Override
@@ -23,6 +23,9 @@ public class PIDValues implements AnnotatedSendable {
 
     private GenericMotorController<?> linkedMotor;
 
+    //whether changes are being batched, and whether a change was made since the batch started
+    private boolean batching = false, changed = false;
+
     public PIDValues(double kP, double kI, double kD) {
         this(kP,kI,kD,0.0);
     }
@@ -100,7 +103,28 @@ public class PIDValues implements AnnotatedSendable {
     }
 
     private void updateLinked() {
-        if (linkedMotor != null) linkedMotor.setPID(this);
+        if (batching) changed = true;
+        else if (linkedMotor != null) linkedMotor.setPID(this);
+    }
+
+    /**
+     * Holds off on updating the linked motor until {@link #endPropertyChanges()}, so editing several values on the dashboard at once only updates the motor once.
+     */
+    @Override
+    public void beginPropertyChanges() {
+        batching = true;
+    }
+
+    /**
+     * Updates the linked motor if any value was changed since {@link #beginPropertyChanges()}.
+     */
+    @Override
+    public void endPropertyChanges() {
+        batching = false;
+        if (changed) {
+            changed = false;
+            updateLinked();
+        }
     }
 
     public Slot0Configs asSlot0Config() {
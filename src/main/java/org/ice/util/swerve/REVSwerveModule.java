@@ -12,8 +12,13 @@ import org.ice.util.motor.ControlType;
 import org.ice.util.motor.GenericMotorController;
 import org.ice.util.motor.GenericSpark;
 import org.ice.util.sendable.AnnotatedSendable;
+import org.ice.util.sendable.TelemetryPriority;
 
 public class REVSwerveModule implements SwerveModule {
+    /**
+     * Number of devices each module configures: the drive motor and the turning motor, which the absolute encoder is connected to.
+     */
+    public static final int DEVICES = 2;
     private SparkAbsoluteEncoder turnEncoder;
     protected GenericMotorController<?> driveMotor, turningMotor;
     private double angularOffset;
@@ -51,8 +56,7 @@ public class REVSwerveModule implements SwerveModule {
         sparkConfig.absoluteEncoder.inverted(turnConfig.encoderInverted);
         sparkConfig.idleMode(SparkBaseConfig.IdleMode.kBrake);
         turnEncoder = motor.getAbsoluteEncoder();
-        turningMotor = new GenericSpark(motor, sparkConfig);
-        motor.configure(sparkConfig, SparkBase.ResetMode.kNoResetSafeParameters, SparkBase.PersistMode.kPersistParameters);
+        turningMotor = new GenericSpark(motor, sparkConfig, true);
     }
 
     private void configureDriveMotor(int motorID, ModuleConfig config) {
@@ -79,8 +83,7 @@ public class REVSwerveModule implements SwerveModule {
         sparkConfig.smartCurrentLimit(driveConfig.currentLimit);
         sparkConfig.inverted(driveConfig.inverted);
 
-        driveMotor = new GenericSpark(motor,sparkConfig);
-        motor.configure(sparkConfig, SparkBase.ResetMode.kNoResetSafeParameters, SparkBase.PersistMode.kPersistParameters);
+        driveMotor = new GenericSpark(motor,sparkConfig,true);
     }
 
     @Override
@@ -90,7 +93,7 @@ public class REVSwerveModule implements SwerveModule {
     }
 
     @Override
-    @Getter(key="Raw Module Angle")
+    @Getter(key="Raw Module Angle",priority=TelemetryPriority.DEBUG)
     public double getRawAngle() {
         return turnEncoder.getPosition();
     }
@@ -109,7 +112,7 @@ public class REVSwerveModule implements SwerveModule {
     @Override
     public SwerveModulePosition getPosition() {
         return new SwerveModulePosition(
-                driveMotor.getPosition(),
+                driveMotor.getCompensatedPosition(),
                 new Rotation2d((getWheelAngle()))
         );
     }
@@ -134,25 +137,25 @@ public class REVSwerveModule implements SwerveModule {
     }
 
     @Override
-    @Getter(key="Drive Temperature")
+    @Getter(key="Drive Temperature",period=1,priority=TelemetryPriority.DEBUG)
     public double getDriveTempCelsius() {
         return driveMotor.getTemp();
     }
 
     @Override
-    @Getter(key="Turn Temperature")
+    @Getter(key="Turn Temperature",period=1,priority=TelemetryPriority.DEBUG)
     public double getTurnTempCelsius() {
         return turningMotor.getTemp();
     }
 
     @Override
-    @Getter(key="Drive Current")
+    @Getter(key="Drive Current",priority=TelemetryPriority.DEBUG)
     public double getDriveCurrent() {
         return driveMotor.getOutputCurrent();
     }
 
     @Override
-    @Getter(key="Turn Current")
+    @Getter(key="Turn Current",priority=TelemetryPriority.DEBUG)
     public double getTurnCurrent() {
         return turningMotor.getOutputCurrent();
     }
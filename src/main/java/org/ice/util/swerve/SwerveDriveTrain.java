@@ -9,10 +9,14 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.*;
 import edu.wpi.first.wpilibj.DriverStation;
+import org.ice.util.motor.StartupConfigurator;
 import org.ice.util.sendable.AnnotatedSubsystemBase;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
     private SwerveModule frontLeft,frontRight,backLeft,backRight;
@@ -20,6 +24,7 @@ public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
     private SwerveDriveOdometry odometry;
     private SwerveDriveKinematics kinematics;
     private DriveTrainConfig config;
+    private StartupConfigurator.Report startupReport;
 
     /**
      * Constructs a new REVDriveTrain with the four given {@link REVSwerveModule swerve modules}, and the given config
@@ -63,10 +68,13 @@ public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
      */
     public SwerveDriveTrain(int frontLeftDrive, int frontLeftTurn, int frontRightDrive, int frontRightTurn, int backLeftDrive, int backLeftTurn, int backRightDrive, int backRightTurn, REVSwerveModule.ModuleConfig moduleConfig, DriveTrainConfig driveTrainConfig) {
         this(
-                new REVSwerveModule(frontLeftDrive,frontLeftTurn,moduleConfig,0),
-                new REVSwerveModule(frontRightDrive,frontRightTurn,moduleConfig,0),
-                new REVSwerveModule(backLeftDrive,backLeftTurn,moduleConfig,0),
-                new REVSwerveModule(backRightDrive,backRightTurn,moduleConfig,0),
+                configureModules(
+                        REVSwerveModule.DEVICES,
+                        () -> new REVSwerveModule(frontLeftDrive,frontLeftTurn,moduleConfig,0),
+                        () -> new REVSwerveModule(frontRightDrive,frontRightTurn,moduleConfig,0),
+                        () -> new REVSwerveModule(backLeftDrive,backLeftTurn,moduleConfig,0),
+                        () -> new REVSwerveModule(backRightDrive,backRightTurn,moduleConfig,0)
+                ),
                 driveTrainConfig
         );
 //        if (motorIDs.length != 8) throw new IllegalArgumentException("Expected 8 motor IDs, got " + motorIDs.length);
@@ -99,13 +107,51 @@ public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
      */
     public SwerveDriveTrain(int frontLeftDrive, int frontLeftTurn, int frontRightDrive, int frontRightTurn, int backLeftDrive, int backLeftTurn, int backRightDrive, int backRightTurn, CTRESwerveModule.ModuleConfig moduleConfig, DriveTrainConfig driveTrainConfig) {
         this(
-                new CTRESwerveModule(frontLeftDrive, frontLeftTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().frontLeft()),
-                new CTRESwerveModule(frontRightDrive, frontRightTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().frontRight()),
-                new CTRESwerveModule(backLeftDrive, backLeftTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().backLeft()),
-                new CTRESwerveModule(backRightDrive, backRightTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().backRight()),
+                configureModules(
+                        CTRESwerveModule.DEVICES,
+                        () -> new CTRESwerveModule(frontLeftDrive, frontLeftTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().frontLeft()),
+                        () -> new CTRESwerveModule(frontRightDrive, frontRightTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().frontRight()),
+                        () -> new CTRESwerveModule(backLeftDrive, backLeftTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().backLeft()),
+                        () -> new CTRESwerveModule(backRightDrive, backRightTurn, moduleConfig, 0, driveTrainConfig.wheelLocations().backRight())
+                ),
                 driveTrainConfig
         );
     }
+
+    private SwerveDriveTrain(ConfiguredModules modules, DriveTrainConfig config) {
+        this(modules.modules()[0], modules.modules()[1], modules.modules()[2], modules.modules()[3], config);
+        startupReport = modules.report();
+    }
+
+    /**
+     * Constructs the four modules in parallel using a {@link StartupConfigurator}, since each module blocks while its motors are configured.
+     * Both CTRE and REV modules are on the roboRIO's bus, and each module counts as every device it configures towards the limit of the bus.
+     * @param devices the number of devices each module configures
+     * @throws IllegalStateException if any of the modules failed to configure
+     */
+    private static ConfiguredModules configureModules(int devices, Supplier<SwerveModule> frontLeft, Supplier<SwerveModule> frontRight, Supplier<SwerveModule> backLeft, Supplier<SwerveModule> backRight) {
+        StartupConfigurator configurator = new StartupConfigurator();
+        List<CompletableFuture<SwerveModule>> modules = List.of(
+                configurator.submit("Front Left Module", StartupConfigurator.RIO_BUS, devices, frontLeft),
+                configurator.submit("Front Right Module", StartupConfigurator.RIO_BUS, devices, frontRight),
+                configurator.submit("Back Left Module", StartupConfigurator.RIO_BUS, devices, backLeft),
+                configurator.submit("Back Right Module", StartupConfigurator.RIO_BUS, devices, backRight)
+        );
+        StartupConfigurator.Report report = configurator.join();
+        System.out.println(report);
+        if (!report.failures().isEmpty()) throw new IllegalStateException(report.toString(), report.failures().get(0).error());
+        return new ConfiguredModules(modules.stream().map(CompletableFuture::join).toArray(SwerveModule[]::new), report);
+    }
+
+    private record ConfiguredModules(SwerveModule[] modules, StartupConfigurator.Report report) {}
+
+    /**
+     * Gets the report of how long each module took to configure, if the modules were created by this drive train.
+     * @return the startup report, or null if the modules were passed to the constructor
+     */
+    public StartupConfigurator.Report getStartupReport() {
+        return startupReport;
+    }
     /**
      * Configures the PathPlanner AutoBuilder using the information from this class
      */
@@ -197,6 +243,7 @@ public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
 
     /**
      * Gets the raw, unmodified heading in degrees (does not include the gyro reversed config value)
+     * The heading is only published if the implementation annotates its override, such as with {@code @Getter(key="Raw Heading",priority=TelemetryPriority.DEBUG)}.
      * @return the heading of the robot in degrees
      */
     @Getter(key="Raw Heading")
@@ -219,6 +266,47 @@ public abstract class SwerveDriveTrain extends AnnotatedSubsystemBase {
         return moduleArr;
     }
 
+    /**
+     * Gets the front left swerve module. Not published by default, to publish it as part of the drive train, override this and annotate the override:
+     * <pre>
+     *{@code
+     * @Override
+     * @Nested(key="Front Left")
+     * public SwerveModule getFrontLeft() {
+     *     return super.getFrontLeft();
+     * }
+     *}
+     *</pre>
+     * @return the front left module
+     */
+    public SwerveModule getFrontLeft() {
+        return frontLeft;
+    }
+
+    /**
+     * Gets the front right swerve module. Not published by default, see {@link #getFrontLeft()}.
+     * @return the front right module
+     */
+    public SwerveModule getFrontRight() {
+        return frontRight;
+    }
+
+    /**
+     * Gets the back left swerve module. Not published by default, see {@link #getFrontLeft()}.
+     * @return the back left module
+     */
+    public SwerveModule getBackLeft() {
+        return backLeft;
+    }
+
+    /**
+     * Gets the back right swerve module. Not published by default, see {@link #getFrontLeft()}.
+     * @return the back right module
+     */
+    public SwerveModule getBackRight() {
+        return backRight;
+    }
+
     /**
      * Config storing the constants needed to set up a swerve drive train
      * @param wheelLocations The locations of the four wheels relative to the center of the robot
@@ -0,0 +1,24 @@
+package org.ice.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how much memory code allocates, for tests that check hot paths do not allocate.
+ */
+public final class Allocations {
+
+    private Allocations() {}
+
+    /**
+     * Runs the given code on the current thread, and measures how much it allocated. The code should be warmed up first, so that the JIT has already compiled it.
+     * @param code the code to measure
+     * @return the number of bytes the current thread allocated while running the given code
+     */
+    public static long allocatedBytes(Runnable code) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        code.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
@@ -0,0 +1,64 @@
+package org.ice.util.motor;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.ice.util.Allocations.allocatedBytes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that controlling a {@link GenericTalon} does not allocate once warmed up, since every control type reuses the same Phoenix request.
+ */
+class GenericTalonAllocationTest {
+
+    private static final int CALLS = 100_000;
+
+    private TalonFX talon;
+    private GenericTalon motor;
+
+    @BeforeAll
+    static void initializeHAL() {
+        HAL.initialize(500, 0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        talon = new TalonFX(1);
+        motor = new GenericTalon(talon);
+    }
+
+    @AfterEach
+    void tearDown() {
+        talon.close();
+    }
+
+    @Test
+    void updatingRequestsDoesNotAllocate() {
+        ControlType.TalonRequest[] requests = new ControlType.TalonRequest[ControlType.values().length];
+        for (ControlType type : ControlType.values()) requests[type.ordinal()] = type.newTalonRequest();
+
+        for (int i = 0; i < CALLS; i++) requests[i % requests.length].withInput(i * 0.001);
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < CALLS; i++) requests[i % requests.length].withInput(i * 0.001);
+        });
+
+        assertEquals(0, allocated, "Bytes allocated by " + CALLS + " request updates");
+    }
+
+    @Test
+    void controlDoesNotAllocate() {
+        ControlType[] types = ControlType.values();
+        //every input is different, so the setpoint cache never skips a call
+        for (int i = 0; i < CALLS; i++) motor.control(i * 0.001, types[i % types.length]);
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < CALLS; i++) motor.control(i * 0.001, types[i % types.length]);
+        });
+
+        assertEquals(0, allocated, "Bytes allocated by " + CALLS + " control calls");
+        assertEquals(CALLS * 2, motor.getSetpointCache().getSent());
+    }
+}
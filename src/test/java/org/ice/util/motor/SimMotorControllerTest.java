@@ -0,0 +1,112 @@
+package org.ice.util.motor;
+
+import edu.wpi.first.units.Units;
+import org.ice.util.swerve.PIDValues;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the simulated motor against the behaviour of a real one: it reaches its free speed, and each closed loop control type settles at its setpoint.
+ */
+class SimMotorControllerTest {
+
+    private static final double FREE_SPEED_RPM = MotorConstants.KrakenX60.FREE_SPEED.in(Units.RPM);
+
+    private static SimMotorController newMotor() {
+        return new SimMotorController(1, MotorConstants.KrakenX60.SPEC, new GearRatio("10:1"), 0.05);
+    }
+
+    @Test
+    void reachesFreeSpeedAtFullPower() {
+        SimMotorController motor = newMotor();
+        motor.controlRaw(1, ControlType.DUTY_CYCLE);
+        motor.step(5);
+        assertEquals(FREE_SPEED_RPM, motor.getRawVelocity(), FREE_SPEED_RPM * 0.01);
+        //a motor spinning freely draws no current without friction
+        assertEquals(0, motor.getOutputCurrent(), 1);
+    }
+
+    @Test
+    void halfPowerReachesHalfFreeSpeed() {
+        SimMotorController motor = newMotor();
+        motor.controlRaw(MotorSpec.NOMINAL_VOLTAGE / 2, ControlType.VOLTAGE);
+        motor.step(5);
+        assertEquals(FREE_SPEED_RPM / 2, motor.getRawVelocity(), FREE_SPEED_RPM * 0.01);
+    }
+
+    @Test
+    void positionSettlesAtSetpoint() {
+        SimMotorController motor = newMotor();
+        motor.setPID(new PIDValues(0.5, 0, 0.01, 0));
+        motor.controlRaw(30, ControlType.POSITION);
+        motor.step(2);
+        assertEquals(30, motor.getRawPosition(), 0.1);
+        assertEquals(0, motor.getRawVelocity(), 10);
+    }
+
+    @Test
+    void pidDoesNotDependOnHowStepsAreSplit() {
+        SimMotorController whole = newMotor();
+        SimMotorController split = newMotor();
+        for (SimMotorController motor : new SimMotorController[] {whole, split}) {
+            motor.setPID(new PIDValues(0.5, 0, 0.01, 0));
+            motor.controlRaw(30, ControlType.POSITION);
+        }
+        //splitting each step in three makes every other substep shorter, which should not change the derivative term
+        for (int i = 0; i < 200; i++) {
+            whole.step(0.0015);
+            for (int j = 0; j < 3; j++) split.step(0.0005);
+            assertEquals(whole.getAppliedVoltage(), split.getAppliedVoltage(), 0.01, "Voltage at " + whole.getTime() + " seconds");
+        }
+        assertEquals(whole.getRawPosition(), split.getRawPosition(), 1e-6);
+    }
+
+    @Test
+    void velocitySettlesAtSetpoint() {
+        SimMotorController motor = newMotor();
+        motor.setPID(new PIDValues(0.0005, 0, 0, 1 / FREE_SPEED_RPM));
+        motor.controlRaw(3000, ControlType.VELOCITY);
+        motor.step(2);
+        assertEquals(3000, motor.getRawVelocity(), 30);
+    }
+
+    @Test
+    void motionMagicPositionFollowsConstraints() {
+        SimMotorController motor = newMotor();
+        motor.setPID(new PIDValues(0.5, 0, 0.01, 0));
+        motor.setMotionConstraints(20, 40);
+        motor.controlRaw(30, ControlType.MM_POSITION);
+        double maxVelocity = 0;
+        for (int i = 0; i < 150; i++) {
+            motor.step(0.02);
+            maxVelocity = Math.max(maxVelocity, Math.abs(motor.getRawVelocity() / 60));
+            //the profile takes 2 seconds to reach the setpoint, so the motor cannot get there before 1.5 seconds
+            if (motor.getTime() < 1.5) assertTrue(motor.getRawPosition() < 29, "Reached the setpoint faster than the profile allows");
+        }
+        assertEquals(30, motor.getRawPosition(), 0.1);
+        assertTrue(maxVelocity < 20 * 1.1, "Max velocity " + maxVelocity + " exceeds the constraint");
+    }
+
+    @Test
+    void settingEncoderPositionDuringMotionMagicDoesNotJump() {
+        SimMotorController motor = newMotor();
+        motor.setPID(new PIDValues(0.5, 0, 0.01, 0));
+        motor.setMotionConstraints(20, 40);
+        motor.controlRaw(30, ControlType.MM_POSITION);
+        motor.step(1);
+        double voltage = motor.getAppliedVoltage();
+        double velocity = motor.getRawVelocity();
+
+        //moving the encoder moves the setpoint relative to the motor, but the motor should still follow the profile from where it is
+        motor.setEncoderPosition(motor.getRawPosition() - 10);
+        motor.step(SimMotorController.SUBSTEP);
+        assertEquals(voltage, motor.getAppliedVoltage(), 1);
+        motor.step(0.1);
+        assertEquals(velocity, motor.getRawVelocity(), 100);
+
+        motor.step(3);
+        assertEquals(30, motor.getRawPosition(), 0.1);
+    }
+}
@@ -0,0 +1,125 @@
+package org.ice.util.sendable;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the cost of reading every property of a sendable through the {@link java.lang.invoke.MethodHandle MethodHandle} accessors built by {@link PropertySchema}
+ * against reading them with {@link Method#invoke(Object, Object...)} and {@link Field#get(Object)}, which is how properties were read before.
+ * The times are printed rather than asserted, since they depend on the machine running the tests.
+ */
+class PropertyAccessBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int UPDATES = 1_000_000;
+
+    public static class Fixture implements AnnotatedSendable {
+
+        @Variable(key="Setpoint")
+        private double setpoint = 4.0;
+
+        @Variable(key="Enabled")
+        private boolean enabled = true;
+
+        private double position = 1.5;
+        private double velocity = -2.25;
+        private int id = 7;
+
+        @Getter(key="Position")
+        public double getPosition() {
+            return position;
+        }
+
+        @Getter(key="Velocity")
+        public double getVelocity() {
+            return velocity;
+        }
+
+        @Getter(key="ID")
+        public int getID() {
+            return id;
+        }
+
+        @Getter(key="Error")
+        public double getError() {
+            return setpoint - position;
+        }
+    }
+
+    @Test
+    void compareHandlesWithReflection() throws ReflectiveOperationException {
+        Fixture fixture = new Fixture();
+        Property[] properties = PropertySchema.of(Fixture.class).bindDirect(fixture).values().toArray(Property[]::new);
+        Reflective[] reflective = reflect(fixture);
+        assertEquals(properties.length, reflective.length);
+        assertEquals(readReflective(reflective), readHandles(properties));
+
+        //warm up both paths so they are compiled before being measured
+        double sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += readHandles(properties);
+            sink += readReflective(reflective);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) sink += readReflective(reflective);
+        double reflectiveNanos = (System.nanoTime() - start) / (double) UPDATES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) sink += readHandles(properties);
+        double handleNanos = (System.nanoTime() - start) / (double) UPDATES;
+
+        System.out.printf("%d properties per update: reflection %.1f ns/update, method handles %.1f ns/update (%.1fx)%n",
+                properties.length, reflectiveNanos, handleNanos, reflectiveNanos / handleNanos);
+        //keeps the reads from being optimized away
+        assertEquals(2 * (WARMUP + UPDATES) * readHandles(properties), sink, 1e-3 * Math.abs(sink));
+    }
+
+    /**
+     * Reads every property the way {@link Property#addToBuilder} does for primitive properties.
+     */
+    private static double readHandles(Property[] properties) {
+        double sum = 0;
+        for (Property property : properties) {
+            Class<?> type = property.getType();
+            if (type.equals(double.class)) sum += property.getDouble();
+            else if (type.equals(long.class)) sum += property.getLong();
+            else if (type.equals(boolean.class)) sum += property.getBoolean() ? 1 : 0;
+        }
+        return sum;
+    }
+
+    private static double readReflective(Reflective[] properties) throws ReflectiveOperationException {
+        double sum = 0;
+        for (Reflective property : properties) {
+            Object value = property.get();
+            if (value instanceof Number number) sum += number.doubleValue();
+            else if (value instanceof Boolean bool) sum += bool ? 1 : 0;
+        }
+        return sum;
+    }
+
+    private static Reflective[] reflect(Object instance) {
+        List<Reflective> properties = new ArrayList<>();
+        for (Method method : instance.getClass().getMethods()) {
+            if (method.isAnnotationPresent(AnnotatedSendable.Getter.class)) properties.add(() -> method.invoke(instance));
+        }
+        for (Field field : instance.getClass().getDeclaredFields()) {
+            if (!field.isAnnotationPresent(AnnotatedSendable.Variable.class)) continue;
+            field.setAccessible(true);
+            properties.add(() -> field.get(instance));
+        }
+        return properties.toArray(Reflective[]::new);
+    }
+
+    @FunctionalInterface
+    private interface Reflective {
+        Object get() throws ReflectiveOperationException;
+    }
+}
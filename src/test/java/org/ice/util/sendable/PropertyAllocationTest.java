@@ -0,0 +1,106 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.util.function.FloatSupplier;
+import edu.wpi.first.util.sendable.SendableBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static org.ice.util.Allocations.allocatedBytes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the getters {@link AnnotatedSendable#initSendable(SendableBuilder)} gives to the builder do not allocate once warmed up,
+ * for primitive properties and for {@code int[]} properties, which are widened into a reused buffer.
+ */
+class PropertyAllocationTest {
+
+    private static final int UPDATES = 100_000;
+
+    public static class Fixture implements AnnotatedSendable {
+
+        @Variable(key="Setpoint")
+        private double setpoint = 4.0;
+
+        private double position = 1.5;
+        private float gain = 0.5f;
+        private int id = 7;
+        private boolean enabled = true;
+        private final int[] ids = {1, 2, 3, 4};
+
+        @Getter(key="Position")
+        public double getPosition() {
+            return position;
+        }
+
+        @Setter(key="Position")
+        public void setPosition(double position) {
+            this.position = position;
+        }
+
+        @Getter(key="Gain")
+        public float getGain() {
+            return gain;
+        }
+
+        @Getter(key="ID")
+        public int getID() {
+            return id;
+        }
+
+        @Getter(key="Enabled")
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Getter(key="IDs")
+        public int[] getIDs() {
+            return ids;
+        }
+    }
+
+    @Test
+    void updatesDoNotAllocate() {
+        List<Object> getters = new ArrayList<>();
+        //records the getter of every property added to the builder
+        SendableBuilder builder = (SendableBuilder) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {SendableBuilder.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("add") && method.getName().endsWith("Property")) getters.add(args[1]);
+                    return null;
+                }
+        );
+        new Fixture().initSendable(builder);
+        assertEquals(6, getters.size());
+
+        //the values are summed so the updates cannot be optimized away
+        double[] sink = {0};
+        for (int i = 0; i < UPDATES; i++) sink[0] += update(getters);
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < UPDATES; i++) sink[0] += update(getters);
+        });
+
+        assertEquals(0, allocated, "Bytes allocated by " + UPDATES + " updates");
+        assertEquals(2 * UPDATES * update(getters), sink[0], 1e-6 * sink[0]);
+    }
+
+    private static double update(List<Object> getters) {
+        double sum = 0;
+        for (int i = 0; i < getters.size(); i++) {
+            Object getter = getters.get(i);
+            if (getter instanceof DoubleSupplier get) sum += get.getAsDouble();
+            else if (getter instanceof FloatSupplier get) sum += get.getAsFloat();
+            else if (getter instanceof LongSupplier get) sum += get.getAsLong();
+            else if (getter instanceof BooleanSupplier get) sum += get.getAsBoolean() ? 1 : 0;
+            else if (getter instanceof Supplier<?> get) sum += ((long[]) get.get()).length;
+        }
+        return sum;
+    }
+}
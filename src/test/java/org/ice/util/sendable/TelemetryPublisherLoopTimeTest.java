@@ -0,0 +1,151 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilderImpl;
+import org.ice.util.motor.GearRatio;
+import org.ice.util.motor.GenericMotorController;
+import org.ice.util.motor.MotorConstants;
+import org.ice.util.motor.SimMotorController;
+import org.ice.util.subsystem.DutyCycleSubsystemBase;
+import org.ice.util.subsystem.PositionSubsystemBase;
+import org.ice.util.subsystem.VelocitySubsystemBase;
+import org.ice.util.swerve.CTRESwerveModule;
+import org.ice.util.swerve.PIDValues;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the main thread time spent on telemetry every loop for a robot with four simulated {@link CTRESwerveModule swerve modules} and four subsystems,
+ * when publishing from the main thread like {@code SmartDashboard} does, and when only taking a {@link TelemetryPublisher#snapshot() snapshot} on the main thread.
+ */
+class TelemetryPublisherLoopTimeTest {
+
+    private static final int WARMUP_LOOPS = 500;
+    private static final int LOOPS = 2000;
+    //time between loops, so the background thread keeps up like it would with a 20 ms loop
+    private static final long LOOP_GAP_NANOS = 250_000;
+
+    private NetworkTableInstance instance;
+    private final List<AnnotatedSendable> robot = new ArrayList<>();
+    private final List<SimMotorController> simMotors = new ArrayList<>();
+
+    public static class Arm extends PositionSubsystemBase {
+
+        public Arm(GenericMotorController<?> motor) {
+            super(motor);
+        }
+
+        @Override
+        @Getter(key="Tolerance",period=1)
+        public double getTolerance() {
+            return 0.5;
+        }
+    }
+
+    public static class Shooter extends VelocitySubsystemBase {
+
+        public Shooter(GenericMotorController<?> motor) {
+            super(motor);
+        }
+    }
+
+    public static class Intake extends DutyCycleSubsystemBase {
+
+        public Intake(GenericMotorController<?> motor) {
+            super(motor);
+        }
+    }
+
+    @BeforeAll
+    static void initializeHAL() {
+        HAL.initialize(500, 0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        instance = NetworkTableInstance.create();
+        CTRESwerveModule.DriveConfig drive = new CTRESwerveModule.DriveConfig(CTRESwerveModule.MotorType.TALONFX, new PIDValues(0.1, 0, 0), 1, 60, false, 6.75);
+        for (int i = 0; i < 4; i++) {
+            CTRESwerveModule.TurnConfig turn = new CTRESwerveModule.TurnConfig(CTRESwerveModule.MotorType.TALONFX, 31 + i, new PIDValues(50, 0, 0.5), 1, 150.0 / 7, 30, false, false);
+            robot.add(new CTRESwerveModule(21 + 2 * i, 22 + 2 * i, new CTRESwerveModule.ModuleConfig(drive, turn, 0.1, i, false), 0, new Translation2d(i < 2 ? 0.3 : -0.3, i % 2 == 0 ? 0.3 : -0.3)));
+        }
+        Arm arm = new Arm(simMotor(1, 0.5));
+        Arm wrist = new Arm(simMotor(2, 0.2));
+        Shooter shooter = new Shooter(simMotor(3, 0.01));
+        Intake intake = new Intake(simMotor(4, 0.01));
+        arm.setPosition(20);
+        wrist.setPosition(-10);
+        shooter.setVelocity(3000);
+        intake.setPower(0.5);
+        robot.addAll(List.of(arm, wrist, shooter, intake));
+    }
+
+    private SimMotorController simMotor(int id, double inertia) {
+        SimMotorController motor = new SimMotorController(id, MotorConstants.KrakenX60.SPEC, new GearRatio("10:1"), inertia);
+        motor.setPID(new PIDValues(0.1, 0, 0, 1 / 6000.0));
+        simMotors.add(motor);
+        //motors are usually published on their own, next to their subsystem
+        robot.add(motor);
+        return motor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        instance.close();
+    }
+
+    @Test
+    void measureMainThreadTime() {
+        List<SendableBuilderImpl> builders = new ArrayList<>();
+        for (int i = 0; i < robot.size(); i++) {
+            SendableBuilderImpl builder = new SendableBuilderImpl();
+            builder.setTable(instance.getTable("Direct/" + i));
+            robot.get(i).initSendable(builder);
+            builder.startListeners();
+            builders.add(builder);
+        }
+        runLoops(WARMUP_LOOPS, () -> builders.forEach(SendableBuilderImpl::update));
+        double directMillis = runLoops(LOOPS, () -> builders.forEach(SendableBuilderImpl::update));
+        builders.forEach(SendableBuilderImpl::close);
+
+        double snapshotMillis;
+        try (TelemetryPublisher publisher = new TelemetryPublisher(instance, 4)) {
+            for (int i = 0; i < robot.size(); i++) publisher.add("Snapshot/" + i, robot.get(i));
+            runLoops(WARMUP_LOOPS, publisher::snapshot);
+            publisher.resetStats();
+            runLoops(LOOPS, publisher::snapshot);
+            //only counts snapshots that were taken, a skipped snapshot would make the average look better than it is
+            snapshotMillis = publisher.getAverageSnapshotTime();
+            System.out.printf("Background publish time: %.4f ms (max %.4f ms), %d dropped frames%n",
+                    publisher.getLastPublishTime(), publisher.getMaxPublishTime(), publisher.getDroppedFrames());
+        }
+
+        //this is a measurement rather than a check, since timing depends on the machine running the test
+        System.out.printf("Main thread telemetry time per loop: publishing %.4f ms, snapshot %.4f ms, %.4f ms (%.0f%%) recovered%n",
+                directMillis, snapshotMillis, directMillis - snapshotMillis, 100 * (directMillis - snapshotMillis) / directMillis);
+    }
+
+    /**
+     * Steps the robot and runs the given telemetry every loop.
+     * @return the average time the telemetry took per loop, in milliseconds
+     */
+    private double runLoops(int loops, Runnable telemetry) {
+        long total = 0;
+        for (int loop = 0; loop < loops; loop++) {
+            for (SimMotorController motor : simMotors) motor.step(0.02);
+            long start = System.nanoTime();
+            telemetry.run();
+            total += System.nanoTime() - start;
+            LockSupport.parkNanos(LOOP_GAP_NANOS);
+        }
+        return total / (loops * 1e6);
+    }
+}
@@ -0,0 +1,196 @@
+package org.ice.util.sendable;
+
+import edu.wpi.first.util.sendable.SendableBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetrySchedulerTest {
+
+    private static final long READ_NANOS = 10_000;
+
+    public static class Fixture implements AnnotatedSendable {
+
+        @Getter(key="Position")
+        public double getPosition() {
+            return 1;
+        }
+
+        @Getter(key="Debug",priority=TelemetryPriority.DEBUG)
+        public double getDebug() {
+            return 2;
+        }
+
+        @Getter(key="Critical",priority=TelemetryPriority.CRITICAL)
+        public double getCritical() {
+            return 3;
+        }
+    }
+
+    /**
+     * Fixture whose normal properties take at least {@link #READ_NANOS} to read, so the scheduler always sees them as costing more than an empty budget.
+     */
+    public static class Slow implements AnnotatedSendable {
+
+        private final int[] reads = new int[4];
+
+        @Getter(key="A")
+        public double getA() {
+            return read(0);
+        }
+
+        @Getter(key="B")
+        public double getB() {
+            return read(1);
+        }
+
+        @Getter(key="C")
+        public double getC() {
+            return read(2);
+        }
+
+        @Getter(key="Critical",priority=TelemetryPriority.CRITICAL)
+        public double getCritical() {
+            return read(3);
+        }
+
+        private double read(int index) {
+            long end = System.nanoTime() + READ_NANOS;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+            return ++reads[index];
+        }
+    }
+
+    private final List<TelemetryScheduler.Slot> slots = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (TelemetryScheduler.Slot slot : slots) slot.close();
+        TelemetryScheduler.setBudget(2000);
+        TelemetryScheduler.setEnabled(false);
+    }
+
+    @Test
+    void stopsPickingOnceTheBudgetIsUsedUp() {
+        TelemetryScheduler.setBudget(250);
+        List<TelemetryScheduler.Slot> normal = List.of(slot(TelemetryPriority.NORMAL, 100), slot(TelemetryPriority.NORMAL, 100), slot(TelemetryPriority.NORMAL, 100), slot(TelemetryPriority.NORMAL, 100));
+        TelemetryScheduler.beginLoop();
+        assertEquals(2, TelemetryScheduler.getLastScheduled());
+        assertEquals(2, TelemetryScheduler.getLastSkipped());
+        assertEquals(2, allowed(normal));
+    }
+
+    @Test
+    void picksNormalPropertiesBeforeDebugProperties() {
+        TelemetryScheduler.setBudget(300);
+        List<TelemetryScheduler.Slot> debug = List.of(slot(TelemetryPriority.DEBUG, 100), slot(TelemetryPriority.DEBUG, 100), slot(TelemetryPriority.DEBUG, 100));
+        List<TelemetryScheduler.Slot> normal = List.of(slot(TelemetryPriority.NORMAL, 100), slot(TelemetryPriority.NORMAL, 100));
+        for (int loop = 0; loop < 5; loop++) {
+            TelemetryScheduler.beginLoop();
+            assertEquals(normal.size(), allowed(normal), "Normal properties picked in loop " + loop);
+            //the normal properties leave room for one debug property
+            assertEquals(1, allowed(debug), "Debug properties picked in loop " + loop);
+        }
+    }
+
+    @Test
+    void skippedPropertiesArePickedInLaterLoops() {
+        TelemetryScheduler.setBudget(200);
+        List<TelemetryScheduler.Slot> normal = new ArrayList<>();
+        for (int i = 0; i < 5; i++) normal.add(slot(TelemetryPriority.NORMAL, 100));
+        int[] picks = new int[normal.size()];
+        //two properties fit in each loop, so over five loops every property is picked twice
+        for (int loop = 0; loop < 5; loop++) {
+            TelemetryScheduler.beginLoop();
+            for (int i = 0; i < normal.size(); i++) if (normal.get(i).isAllowed()) picks[i]++;
+        }
+        for (int i = 0; i < picks.length; i++) assertEquals(2, picks[i], "Loops property " + i + " was picked in");
+    }
+
+    @Test
+    void criticalPropertiesAreReadEveryLoop() throws Exception {
+        TelemetryScheduler.setEnabled(true);
+        TelemetryScheduler.setBudget(0);
+        Slow sendable = new Slow();
+        List<AutoCloseable> closeables = new ArrayList<>();
+        Map<String, DoubleSupplier> getters = new HashMap<>();
+        sendable.initSendable(builder(closeables, getters));
+        try {
+            int loops = 30;
+            for (int loop = 0; loop < loops; loop++) {
+                TelemetryScheduler.beginLoop();
+                for (DoubleSupplier getter : getters.values()) getter.getAsDouble();
+            }
+            assertEquals(loops, sendable.reads[3], "Reads of the critical property");
+            //with no budget, one normal property is read per loop, taking turns
+            for (int i = 0; i < 3; i++) {
+                assertTrue(sendable.reads[i] < loops, "Property " + i + " was read every loop despite the budget");
+                assertTrue(sendable.reads[i] >= loops / 3, "Property " + i + " was only read " + sendable.reads[i] + " times");
+            }
+        } finally {
+            for (AutoCloseable closeable : closeables) closeable.close();
+        }
+    }
+
+    @Test
+    void closingTheBuilderUnregistersProperties() throws Exception {
+        TelemetryScheduler.setEnabled(true);
+        int registered = TelemetryScheduler.getRegistered();
+        for (int i = 0; i < 10; i++) {
+            List<AutoCloseable> closeables = new ArrayList<>();
+            new Fixture().initSendable(builder(closeables));
+            //critical properties are never registered
+            assertEquals(registered + 2, TelemetryScheduler.getRegistered());
+            for (AutoCloseable closeable : closeables) closeable.close();
+            assertEquals(registered, TelemetryScheduler.getRegistered());
+        }
+    }
+
+    /**
+     * Registers a slot that has been measured to take the given time to read.
+     */
+    private TelemetryScheduler.Slot slot(TelemetryPriority priority, double micros) {
+        TelemetryScheduler.Slot slot = TelemetryScheduler.register(priority);
+        slots.add(slot);
+        //the running average converges on the measured time
+        for (int i = 0; i < 100; i++) slot.record((long) (micros * 1e3));
+        return slot;
+    }
+
+    private static int allowed(List<TelemetryScheduler.Slot> slots) {
+        int allowed = 0;
+        for (TelemetryScheduler.Slot slot : slots) if (slot.isAllowed()) allowed++;
+        return allowed;
+    }
+
+    /**
+     * @return a builder that ignores every property, and adds every closeable to the given list
+     */
+    private static SendableBuilder builder(List<AutoCloseable> closeables) {
+        return builder(closeables, new HashMap<>());
+    }
+
+    /**
+     * @return a builder that adds the getter of every double property to the given map, and every closeable to the given list
+     */
+    private static SendableBuilder builder(List<AutoCloseable> closeables, Map<String, DoubleSupplier> getters) {
+        return (SendableBuilder) Proxy.newProxyInstance(
+                TelemetrySchedulerTest.class.getClassLoader(),
+                new Class<?>[] {SendableBuilder.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("addCloseable")) closeables.add((AutoCloseable) args[0]);
+                    if (method.getName().equals("addDoubleProperty")) getters.put((String) args[0], (DoubleSupplier) args[1]);
+                    return null;
+                }
+        );
+    }
+}